@@ -0,0 +1,253 @@
+package com.csoft.services;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Build-time entry point compiling the SPDX license list of the plugin into
+ * the binary {@link SpdxIndex} bundled in the plugin jar.
+ * <p>
+ * The generator belongs to the build-only sources: it is compiled with the
+ * test classes and is not packaged in the plugin jar.
+ * <p>
+ * Usage: {@code SpdxIndexGenerator <licenses.json> <exceptions.json> <alias list> <index file>}
+ */
+public final class SpdxIndexGenerator {
+
+    private static final String SPDX_LICENSE_URL = "https://spdx.org/licenses/";
+
+    private SpdxIndexGenerator() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException(
+                    "Usage: SpdxIndexGenerator <licenses.json> <exceptions.json> <alias list> <index file>");
+        }
+        Path target = Paths.get(args[3]);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (InputStream licenses = Files.newInputStream(Paths.get(args[0]));
+             InputStream exceptions = Files.newInputStream(Paths.get(args[1]));
+             BufferedReader aliases = Files.newBufferedReader(Paths.get(args[2]), StandardCharsets.UTF_8);
+             OutputStream out = Files.newOutputStream(target)) {
+            write(licenses, exceptions, aliases, out);
+        }
+    }
+
+    /**
+     * Compiles the SPDX license and exception lists, in the JSON format of the
+     * SPDX license-list-data repository, and the alias list into an index.
+     * <p>
+     * In the alias list, an unindented line either names a listed identifier
+     * or declares a license missing from the SPDX lists, e.g. a license
+     * expression, as '&lt;id&gt; | &lt;full name&gt; | &lt;flags&gt;', the flags being a
+     * comma-separated subset of 'osi', 'deprecated' and 'exception'; the
+     * indented lines below are its aliases. Blank lines and lines starting
+     * with '#' are skipped.
+     * <p>
+     * The aliases of the list win over the identifiers, full names and
+     * spdx.org URLs of the listed licenses, which allows e.g. to resolve a
+     * deprecated identifier to its replacement; among the listed licenses,
+     * a name shared by several of them stays with the first non-deprecated one.
+     *
+     * @param licenses   The stream of the SPDX license list.
+     * @param exceptions The stream of the SPDX exception list.
+     * @param aliases    The reader of the alias list.
+     * @param out        The stream the index is written to.
+     * @throws IOException              When a list cannot be read or the index written.
+     * @throws IllegalArgumentException When a list is malformed or an alias is given to two licenses.
+     */
+    public static void write(final InputStream licenses,
+                             final InputStream exceptions,
+                             final BufferedReader aliases,
+                             final OutputStream out) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        List<Integer> entryFlags = new ArrayList<>();
+        ObjectMapper mapper = new ObjectMapper();
+        readList(mapper.readTree(licenses), "licenses", "licenseId", 0, entries, entryFlags);
+        readList(mapper.readTree(exceptions), "exceptions", "licenseExceptionId", SpdxIndex.FLAG_EXCEPTION,
+                entries, entryFlags);
+        int listed = entries.size();
+        Map<String, Integer> listedNumbers = new HashMap<>();
+        for (int i = 0; i < listed; i++) {
+            listedNumbers.put(entries.get(i)[0], i);
+        }
+
+        // sorted on the UTF-8 bytes, as searched by SpdxIndex.indexOf
+        Map<byte[], Integer> aliasNumbers = new TreeMap<>(SpdxIndexGenerator::compareBytes);
+        int current = -1;
+        String line;
+        while ((line = aliases.readLine()) != null) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (Character.isWhitespace(line.charAt(0))) {
+                if (current < 0) {
+                    throw new IllegalArgumentException("Alias '" + line.trim() + "' precedes any SPDX license");
+                }
+                addAlias(aliasNumbers, entries, current, line);
+            } else if (line.indexOf('|') < 0) {
+                Integer number = listedNumbers.get(line.trim());
+                if (number == null) {
+                    throw new IllegalArgumentException("Unknown SPDX license '" + line.trim() + "'");
+                }
+                current = number;
+            } else {
+                String[] parts = line.split("\\|", -1);
+                if (parts.length > 3) {
+                    throw new IllegalArgumentException("Malformed SPDX license line '" + line + "'");
+                }
+                String id = parts[0].trim();
+                if (listedNumbers.containsKey(id)) {
+                    throw new IllegalArgumentException("SPDX license '" + id + "' is already listed");
+                }
+                entries.add(new String[]{id, parts[1].trim()});
+                entryFlags.add(parseFlags(parts.length > 2 ? parts[2] : ""));
+                current = entries.size() - 1;
+                addAlias(aliasNumbers, entries, current, id);
+                addAlias(aliasNumbers, entries, current, parts[1]);
+            }
+        }
+        // the identifiers first, then the names and URLs, the deprecated licenses last
+        for (int field = 0; field < 3; field++) {
+            for (boolean deprecated : new boolean[]{false, true}) {
+                for (int i = 0; i < listed; i++) {
+                    if (((entryFlags.get(i) & SpdxIndex.FLAG_DEPRECATED) != 0) == deprecated) {
+                        String alias = field < 2 ? entries.get(i)[field] : SPDX_LICENSE_URL + entries.get(i)[0];
+                        aliasNumbers.putIfAbsent(foldedBytes(alias), i);
+                    }
+                }
+            }
+        }
+
+        Map<String, Integer> stringOffsets = new LinkedHashMap<>();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream stringsOut = new DataOutputStream(strings);
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SpdxIndex.MAGIC);
+        data.writeInt(SpdxIndex.FORMAT_VERSION);
+        data.writeInt(entries.size());
+        data.writeInt(aliasNumbers.size());
+        for (int i = 0; i < entries.size(); i++) {
+            data.writeInt(pool(stringOffsets, stringsOut, entries.get(i)[0]));
+            data.writeInt(pool(stringOffsets, stringsOut, entries.get(i)[1]));
+            data.writeByte(entryFlags.get(i));
+        }
+        for (Map.Entry<byte[], Integer> alias : aliasNumbers.entrySet()) {
+            data.writeInt(pool(stringOffsets, stringsOut, new String(alias.getKey(), StandardCharsets.UTF_8)));
+            data.writeShort(alias.getValue());
+        }
+        stringsOut.flush();
+        strings.writeTo(data);
+        data.flush();
+    }
+
+    private static void readList(final JsonNode list,
+                                 final String arrayField,
+                                 final String idField,
+                                 final int baseFlags,
+                                 final List<String[]> entries,
+                                 final List<Integer> entryFlags) {
+        JsonNode array = list.path(arrayField);
+        if (!array.isArray()) {
+            throw new IllegalArgumentException("Not an SPDX list of " + arrayField);
+        }
+        for (JsonNode entry : array) {
+            String id = entry.path(idField).asText("");
+            String name = entry.path("name").asText("");
+            if (id.isEmpty() || name.isEmpty()) {
+                throw new IllegalArgumentException("Malformed SPDX list entry " + entry);
+            }
+            int flags = baseFlags;
+            if (entry.path("isOsiApproved").asBoolean()) {
+                flags |= SpdxIndex.FLAG_OSI_APPROVED;
+            }
+            if (entry.path("isDeprecatedLicenseId").asBoolean()) {
+                flags |= SpdxIndex.FLAG_DEPRECATED;
+            }
+            entries.add(new String[]{id, name});
+            entryFlags.add(flags);
+        }
+    }
+
+    private static void addAlias(final Map<byte[], Integer> aliasNumbers,
+                                 final List<String[]> entries,
+                                 final int license,
+                                 final String alias) {
+        Integer previous = aliasNumbers.putIfAbsent(foldedBytes(alias), license);
+        if (previous != null && previous != license) {
+            throw new IllegalArgumentException("Alias '" + alias.trim() + "' maps to both "
+                    + entries.get(previous)[0] + " and " + entries.get(license)[0]);
+        }
+    }
+
+    private static byte[] foldedBytes(final String alias) {
+        return SpdxNormalizer.fold(alias).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int parseFlags(final String flags) {
+        int value = 0;
+        for (String flag : flags.split(",")) {
+            switch (flag.trim()) {
+                case "":
+                    break;
+                case "osi":
+                    value |= SpdxIndex.FLAG_OSI_APPROVED;
+                    break;
+                case "deprecated":
+                    value |= SpdxIndex.FLAG_DEPRECATED;
+                    break;
+                case "exception":
+                    value |= SpdxIndex.FLAG_EXCEPTION;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown SPDX license flag '" + flag.trim() + "'");
+            }
+        }
+        return value;
+    }
+
+    private static int pool(final Map<String, Integer> stringOffsets,
+                            final DataOutputStream stringsOut,
+                            final String value) throws IOException {
+        Integer offset = stringOffsets.get(value);
+        if (offset == null) {
+            offset = stringsOut.size();
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            stringsOut.writeShort(bytes.length);
+            stringsOut.write(bytes);
+            stringOffsets.put(value, offset);
+        }
+        return offset;
+    }
+
+    private static int compareBytes(final byte[] left, final byte[] right) {
+        int common = Math.min(left.length, right.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return left.length - right.length;
+    }
+}
@@ -0,0 +1,65 @@
+package com.csoft.benchmarks;
+
+import com.csoft.utils.ArtifactUtils;
+import com.csoft.utils.ClassifiedDependencies;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the dependency set operations of {@link ArtifactUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactUtilsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int artifacts;
+
+    private MavenProject project;
+
+    @Setup
+    public void setup() {
+        Set<Artifact> graph = SyntheticGraph.artifacts(artifacts);
+        project = new MavenProject();
+        project.setArtifacts(graph);
+        project.setDependencyArtifacts(SyntheticGraph.directSubset(graph));
+    }
+
+    @Benchmark
+    public ClassifiedDependencies classifyDependencies() {
+        return ArtifactUtils.classifyDependencies(project);
+    }
+
+    @Benchmark
+    public Set<Artifact> directDependencies() {
+        return ArtifactUtils.getDirectDependencies(project);
+    }
+
+    @Benchmark
+    public Set<Artifact> transitiveDependencies() {
+        return ArtifactUtils.getTransitiveDependencies(project);
+    }
+
+    @Benchmark
+    public Set<Artifact> cumulativeDependencies() {
+        return ArtifactUtils.getCumulativeDependencies(project);
+    }
+}
@@ -0,0 +1,75 @@
+package com.csoft.benchmarks;
+
+import com.csoft.services.DependencyAnalyzer;
+import com.csoft.services.ResolutionResult;
+import mocks.TestProjectBuilder;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmarks the license resolution of {@link DependencyAnalyzer} against the
+ * stubbed {@link TestProjectBuilder}, so that it measures the overhead of the
+ * plugin itself rather than the one of building the Maven projects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyAnalyzerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int artifacts;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private MavenSession session;
+    private TestProjectBuilder projectBuilder;
+    private Set<Artifact> direct;
+    private Set<Artifact> transitive;
+
+    @Setup
+    public void setup() {
+        // stub-only: a regular mock would record every invocation made during the benchmark
+        session = mock(MavenSession.class, withSettings().stubOnly());
+        when(session.getProjectBuildingRequest()).thenReturn(new DefaultProjectBuildingRequest());
+        projectBuilder = new TestProjectBuilder();
+        direct = new LinkedHashSet<>();
+        transitive = new LinkedHashSet<>();
+        Random random = new Random(42L);
+        for (int i = 0; i < artifacts; i++) {
+            Set<Artifact> artifact = projectBuilder.createArtifact("org.synthetic.group" + i % 37,
+                    "artifact-" + i, "1." + i % 7, Collections.singleton(SyntheticGraph.license(random, i)));
+            (i % 10 == 0 ? direct : transitive).addAll(artifact);
+        }
+    }
+
+    @Benchmark
+    public ResolutionResult resolve() {
+        return new DependencyAnalyzer(session, projectBuilder, threads).resolve(direct, transitive);
+    }
+}
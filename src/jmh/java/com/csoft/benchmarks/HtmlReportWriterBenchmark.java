@@ -0,0 +1,148 @@
+package com.csoft.benchmarks;
+
+import com.csoft.services.HtmlReports;
+import com.csoft.services.LicenseScanner;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the writers the HTML report was and is rendered through: the
+ * unbuffered {@code FileWriter} it used to be written with, and the
+ * {@code BufferedWriter} of {@code Files.newBufferedWriter} it is written
+ * with now.
+ * <p>
+ * Both writers are built over a {@link FileOutputStream} counting its
+ * writes, each one being a write system call, exactly as {@code FileWriter}
+ * and {@code Files.newBufferedWriter} build them. The {@code fileWrites},
+ * {@code fileBytes} and {@code reports} counters are event counts, which JMH
+ * totals over the measurement iterations: the writes and bytes of a report
+ * are their totals divided by the {@code reports} total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlReportWriterBenchmark {
+
+    @Param({"5000"})
+    public int artifacts;
+
+    @Param({"unbuffered", "buffered"})
+    public String writer;
+
+    private Path buildDirectory;
+    private File reportFile;
+    private MavenProject project;
+    private Map<String, List<String>> licenseMap;
+    private Map<String, List<String>> violationsMap;
+
+    /**
+     * Writes reaching the report files, and reports rendered.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileWrites {
+
+        public long fileWrites;
+        public long fileBytes;
+        public long reports;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        buildDirectory = Files.createTempDirectory("licensescan-benchmark");
+        reportFile = buildDirectory.resolve("license-scan-results.html").toFile();
+        project = new MavenProject();
+        project.setName("benchmark");
+        project.getBuild().setDirectory(buildDirectory.toString());
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.carlomorelli");
+        plugin.setArtifactId("licensescan-maven-plugin");
+        plugin.setVersion("benchmark");
+        project.getBuild().addPlugin(plugin);
+        licenseMap = SyntheticGraph.licenseMap(artifacts);
+        violationsMap = new LicenseScanner(SyntheticGraph.LITERAL_FORBIDDEN_LICENSES).scan(licenseMap);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(buildDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void writeHtmlReport(final FileWrites fileWrites) throws IOException {
+        CountingFileOutputStream out = new CountingFileOutputStream(reportFile);
+        try (Writer reportWriter = "buffered".equals(writer)
+                // Files.newBufferedWriter(path, UTF_8)
+                ? new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8.newEncoder()))
+                // new FileWriter(file)
+                : new OutputStreamWriter(out, Charset.defaultCharset())) {
+            HtmlReports.write(reportWriter, project, licenseMap, violationsMap);
+        }
+        fileWrites.fileWrites += out.writes;
+        fileWrites.fileBytes += out.bytes;
+        fileWrites.reports++;
+    }
+
+    private static final class CountingFileOutputStream extends FileOutputStream {
+
+        private long writes;
+        private long bytes;
+
+        CountingFileOutputStream(final File file) throws IOException {
+            super(file);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            writes++;
+            bytes++;
+            super.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b) throws IOException {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            writes++;
+            bytes += len;
+            super.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.csoft.benchmarks;
+
+import com.csoft.services.LicenseScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link LicenseScanner#scan(Map)} against literal and regex-heavy
+ * forbidden license lists. A new scanner is created for each invocation, as
+ * each build does, so the verdict memoization starts empty every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseScannerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int artifacts;
+
+    @Param({"literal", "regex"})
+    public String forbiddenList;
+
+    private Map<String, List<String>> licenseMap;
+    private List<String> forbiddenLicenses;
+
+    @Setup
+    public void setup() {
+        licenseMap = SyntheticGraph.licenseMap(artifacts);
+        forbiddenLicenses = "regex".equals(forbiddenList)
+                ? SyntheticGraph.REGEX_FORBIDDEN_LICENSES
+                : SyntheticGraph.LITERAL_FORBIDDEN_LICENSES;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> scan() {
+        return new LicenseScanner(forbiddenLicenses).scan(licenseMap);
+    }
+}
@@ -0,0 +1,86 @@
+package com.csoft.benchmarks;
+
+import com.csoft.services.LicenseScanner;
+import com.csoft.services.ReportBuilder;
+import com.csoft.services.ReportFormat;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the generation of the JSON and HTML reports, alone and together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBuilderBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int artifacts;
+
+    @Param({"json", "html", "json,html"})
+    public String formats;
+
+    private Path buildDirectory;
+    private ReportBuilder reportBuilder;
+    private Set<ReportFormat> reportFormats;
+    private Map<String, List<String>> licenseMap;
+    private Map<String, List<String>> violationsMap;
+
+    @Setup
+    public void setup() throws IOException {
+        buildDirectory = Files.createTempDirectory("licensescan-benchmark");
+        MavenProject project = new MavenProject();
+        project.setName("benchmark");
+        project.getBuild().setDirectory(buildDirectory.toString());
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.carlomorelli");
+        plugin.setArtifactId("licensescan-maven-plugin");
+        plugin.setVersion("benchmark");
+        project.getBuild().addPlugin(plugin);
+        reportBuilder = new ReportBuilder(project);
+        reportFormats = EnumSet.noneOf(ReportFormat.class);
+        for (String format : formats.split(",")) {
+            reportFormats.add(ReportFormat.fromName(format));
+        }
+        licenseMap = SyntheticGraph.licenseMap(artifacts);
+        violationsMap = new LicenseScanner(SyntheticGraph.LITERAL_FORBIDDEN_LICENSES).scan(licenseMap);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(buildDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Map<ReportFormat, String> buildReports() throws IOException {
+        return reportBuilder.buildReports(reportFormats, licenseMap, violationsMap, null);
+    }
+}
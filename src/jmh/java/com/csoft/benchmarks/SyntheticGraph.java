@@ -0,0 +1,125 @@
+package com.csoft.benchmarks;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic dependency graphs shared by the benchmarks. Graphs are generated
+ * from a fixed seed so that results are comparable between runs.
+ */
+final class SyntheticGraph {
+
+    private static final long SEED = 42L;
+    private static final String[] LICENSE_FAMILIES = {
+            "Apache License, Version 2.0",
+            "The Apache Software License, Version 2.0",
+            "MIT License",
+            "The MIT License",
+            "BSD 3-Clause License",
+            "The BSD License",
+            "Eclipse Public License 1.0",
+            "Eclipse Public License - v 2.0",
+            "GNU General Public License, version 2",
+            "GNU Lesser General Public License v2.1",
+            "GNU Affero General Public License v3",
+            "Mozilla Public License 2.0",
+            "CDDL + GPLv2 with classpath exception",
+            "Common Development and Distribution License 1.1",
+            "Bouncy Castle Licence",
+            "Public Domain",
+    };
+    private static final String[] SCOPES = {"compile", "compile", "compile", "runtime", "test", "provided"};
+
+    static final List<String> LITERAL_FORBIDDEN_LICENSES = Collections.unmodifiableList(Arrays.asList(
+            "GNU General Public License, version 2",
+            "GNU Affero General Public License v3",
+            "GNU Lesser General Public License v2.1",
+            "Common Development and Distribution License 1.1",
+            "Bouncy Castle Licence",
+            "GPL 2",
+            "GPL 3",
+            "AGPL",
+            "LGPL",
+            "SSPL"));
+
+    static final List<String> REGEX_FORBIDDEN_LICENSES = Collections.unmodifiableList(Arrays.asList(
+            "regex:.*General Public License.*",
+            "regex:^(A|L)?GPL.*",
+            "regex:.*GPLv[23].*",
+            "regex:.*Affero.*",
+            "regex:.*Common Development and Distribution.*",
+            "regex:.*Castle.*",
+            "regex:.*Server Side Public License.*",
+            "regex:.*Commons Clause.*",
+            "regex:.*Business Source.*",
+            "regex:.*Proprietary.*"));
+
+    private SyntheticGraph() {
+    }
+
+    /**
+     * Generates the labels and licenses of a graph of the input size. Most
+     * artifacts share a small pool of license strings, as in real graphs,
+     * while a few carry a distinct variation of it.
+     */
+    static Map<String, List<String>> licenseMap(final int size) {
+        Random random = new Random(SEED);
+        Map<String, List<String>> licenseMap = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            List<String> licenses = new ArrayList<>(2);
+            licenses.add(license(random, i));
+            if (random.nextInt(10) == 0) {
+                licenses.add(license(random, i));
+            }
+            licenseMap.put(groupId(i) + ":artifact-" + i + ":1." + (i % 7) + ":compile", licenses);
+        }
+        return licenseMap;
+    }
+
+    /**
+     * Generates the artifacts of a graph of the input size, with mixed scopes.
+     */
+    static Set<Artifact> artifacts(final int size) {
+        Random random = new Random(SEED);
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            artifacts.add(new DefaultArtifact(groupId(i), "artifact-" + i, "1." + (i % 7),
+                    SCOPES[random.nextInt(SCOPES.length)], "jar", null, new DefaultArtifactHandler("jar")));
+        }
+        return artifacts;
+    }
+
+    /**
+     * Returns the direct dependencies of the input graph, roughly a tenth of it.
+     */
+    static Set<Artifact> directSubset(final Set<Artifact> artifacts) {
+        Set<Artifact> direct = new LinkedHashSet<>();
+        int i = 0;
+        for (Artifact artifact : artifacts) {
+            if (i++ % 10 == 0) {
+                direct.add(artifact);
+            }
+        }
+        return direct;
+    }
+
+    static String license(final Random random, final int index) {
+        String family = LICENSE_FAMILIES[random.nextInt(LICENSE_FAMILIES.length)];
+        return random.nextInt(20) == 0 ? family + " (variant " + index % 50 + ")" : family;
+    }
+
+    private static String groupId(final int index) {
+        return "org.synthetic.group" + index % 37;
+    }
+}
@@ -0,0 +1,35 @@
+package com.csoft.services;
+
+import org.apache.maven.project.MavenProject;
+
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives the benchmarks access to the package-private HTML rendering of
+ * {@link ReportBuilder}, to render a report through a writer of their own.
+ */
+public final class HtmlReports {
+
+    private HtmlReports() {
+    }
+
+    /**
+     * Renders the HTML report of a single module to a writer, which is neither
+     * flushed nor closed.
+     *
+     * @param writer        writer the report is rendered to
+     * @param project       project the report is about
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     */
+    public static void write(final Writer writer,
+                             final MavenProject project,
+                             final Map<String, List<String>> licenseMap,
+                             final Map<String, List<String>> violationsMap) {
+        ReportBuilder.writeHtmlReport(writer, new ReportBuilder.Report(project, licenseMap, violationsMap, null,
+                Collections.<String, String>emptyMap(), Collections.<String, List<String>>emptyMap()));
+    }
+}
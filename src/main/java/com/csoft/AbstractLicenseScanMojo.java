@@ -0,0 +1,392 @@
+package com.csoft;
+
+import com.csoft.services.AuditMetrics;
+import com.csoft.services.BuildLogger;
+import com.csoft.services.DependencyAnalyzer;
+import com.csoft.services.JarLicenseDetector;
+import com.csoft.services.LicenseCache;
+import com.csoft.services.LicenseScanner;
+import com.csoft.services.PomLicenseReader;
+import com.csoft.services.ReactorLicenseCache;
+import com.csoft.services.ReportBuilder;
+import com.csoft.services.ReportFormat;
+import com.csoft.services.SpdxNormalizer;
+import com.csoft.services.UnresolvedPolicy;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the LicenseScan Maven Plugin Mojos, holding the configuration
+ * parameters and the steps shared by the per-module and the aggregate audits.
+ * <p>
+ * (C) 2018-2023 Carlo Morelli
+ * Released with MIT License
+ */
+public abstract class AbstractLicenseScanMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    protected MavenProject project;
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    @Component
+    protected ProjectBuilder projectBuilder;
+
+    @Parameter(property = "printLicenses", defaultValue = "false")
+    protected boolean printLicenses;
+
+    @Parameter(property = "forbiddenLicenses", alias = "blacklistedLicenses")
+    protected List<String> forbiddenLicenses;
+
+    @Parameter(property = "failBuildOnViolation", alias = "failBuildOnBlacklisted", defaultValue = "false")
+    protected boolean failBuildOnViolation;
+
+    @Parameter(property = "threads", defaultValue = "1")
+    protected int threads;
+
+    @Parameter(property = "useCache", defaultValue = "true")
+    protected boolean useCache;
+
+    @Parameter(property = "cacheDirectory")
+    protected File cacheDirectory;
+
+    @Parameter(property = "lightweightResolution", defaultValue = "true")
+    protected boolean lightweightResolution;
+
+    @Parameter(property = "batchResolution", defaultValue = "true")
+    protected boolean batchResolution;
+
+    @Parameter(property = "jarLicenseDetection", defaultValue = "false")
+    protected boolean jarLicenseDetection;
+
+    @Parameter(property = "spdxMatching", defaultValue = "false")
+    protected boolean spdxMatching;
+
+    @Parameter(property = "reportFormats", defaultValue = "json,html")
+    protected List<String> reportFormats;
+
+    @Parameter(property = "writeMetrics", defaultValue = "false")
+    protected boolean writeMetrics;
+
+    @Parameter(property = "slowestArtifacts", defaultValue = "10")
+    protected int slowestArtifacts;
+
+    @Parameter(property = "unresolvedPolicy", defaultValue = "fail-fast")
+    protected String unresolvedPolicy;
+
+    protected AbstractLicenseScanMojo() {
+    }
+
+    protected AbstractLicenseScanMojo(final MavenProject proj,
+                                      final MavenSession session,
+                                      final ProjectBuilder builder,
+                                      final Log log) {
+        setLog(log);
+        this.project = proj;
+        this.session = session;
+        this.projectBuilder = builder;
+        this.forbiddenLicenses = new ArrayList<>();
+        this.reportFormats = Arrays.asList("json", "html");
+        this.slowestArtifacts = 10;
+        this.unresolvedPolicy = "fail-fast";
+    }
+
+    public void setPrintLicenses(boolean printLicenses) {
+        this.printLicenses = printLicenses;
+    }
+
+    public void setForbiddenLicenses(List<String> forbiddenLicenses) {
+        this.forbiddenLicenses = forbiddenLicenses;
+    }
+
+    public void setFailBuildOnViolation(boolean failBuildOnViolation) {
+        this.failBuildOnViolation = failBuildOnViolation;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
+    public void setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public void setLightweightResolution(boolean lightweightResolution) {
+        this.lightweightResolution = lightweightResolution;
+    }
+
+    public void setBatchResolution(boolean batchResolution) {
+        this.batchResolution = batchResolution;
+    }
+
+    public void setJarLicenseDetection(boolean jarLicenseDetection) {
+        this.jarLicenseDetection = jarLicenseDetection;
+    }
+
+    public void setSpdxMatching(boolean spdxMatching) {
+        this.spdxMatching = spdxMatching;
+    }
+
+    public void setReportFormats(List<String> reportFormats) {
+        this.reportFormats = reportFormats;
+    }
+
+    public void setWriteMetrics(boolean writeMetrics) {
+        this.writeMetrics = writeMetrics;
+    }
+
+    public void setSlowestArtifacts(int slowestArtifacts) {
+        this.slowestArtifacts = slowestArtifacts;
+    }
+
+    public void setUnresolvedPolicy(String unresolvedPolicy) {
+        this.unresolvedPolicy = unresolvedPolicy;
+    }
+
+    /**
+     * Creates a {@link DependencyAnalyzer} set up according to the Mojo configuration.
+     *
+     * @param licenseCache The persistent cache to use, or null.
+     * @param auditMetrics The metrics of the current audit.
+     * @param policy       The policy applied to the artifacts which cannot be resolved.
+     * @return the configured analyzer.
+     */
+    protected DependencyAnalyzer createDependencyAnalyzer(final LicenseCache licenseCache,
+                                                          final AuditMetrics auditMetrics,
+                                                          final UnresolvedPolicy policy) {
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder, threads);
+        dependencyAnalyzer.setLicenseCache(licenseCache);
+        dependencyAnalyzer.setAuditMetrics(auditMetrics);
+        dependencyAnalyzer.setUnresolvedPolicy(policy);
+        dependencyAnalyzer.setBatchResolution(batchResolution);
+        dependencyAnalyzer.setReactorLicenseCache(ReactorLicenseCache.forSession(session));
+        if (lightweightResolution) {
+            dependencyAnalyzer.setPomLicenseReader(
+                    new PomLicenseReader(new File(session.getLocalRepository().getBasedir())));
+        }
+        if (jarLicenseDetection) {
+            // opening the jars is I/O bound: use all the cores even with a sequential resolution
+            dependencyAnalyzer.setJarLicenseDetector(
+                    new JarLicenseDetector(Math.max(threads, Runtime.getRuntime().availableProcessors())));
+        }
+        return dependencyAnalyzer;
+    }
+
+    /**
+     * Creates a {@link LicenseScanner} matching the forbidden licenses, on
+     * their SPDX identifiers too when the SPDX matching is enabled.
+     *
+     * @return the configured scanner.
+     */
+    protected LicenseScanner createLicenseScanner() {
+        return new LicenseScanner(forbiddenLicenses,
+                spdxMatching ? SpdxNormalizer.getDefault() : null);
+    }
+
+    /**
+     * Returns the settings of the options which can change the outcome of an
+     * audit for the same dependencies, i.e. the licenses resolved for them or
+     * the way these are matched.
+     *
+     * @return List of option settings, as 'name=value'.
+     */
+    protected List<String> getOutcomeOptions() {
+        return Arrays.asList(
+                "lightweightResolution=" + lightweightResolution,
+                "batchResolution=" + batchResolution,
+                "jarLicenseDetection=" + jarLicenseDetection,
+                "spdxMatching=" + spdxMatching);
+    }
+
+    protected boolean violationAnalysis(final Map<String, List<String>> violationsMap) {
+        return violationAnalysis(violationsMap, Collections.<String, List<String>>emptyMap());
+    }
+
+    /**
+     * Logs the violations, each Transitive artifact along with the path of
+     * dependencies which pulled it in.
+     *
+     * @param violationsMap Map of type {key: forbiddenLicense, value: listOf[artifact GAV label]}
+     * @param pathsMap      Map of type {key: artifactGAVLabel, value: listOf[labels from the Direct dependency]}
+     * @return whether any violation was found.
+     */
+    protected boolean violationAnalysis(final Map<String, List<String>> violationsMap,
+                                        final Map<String, List<String>> pathsMap) {
+        Log log = getLog();
+        boolean potentiallyFailBuild = false;
+        Set<String> forbiddenLicenses = violationsMap.keySet();
+        if (!forbiddenLicenses.isEmpty()) {
+            log.info("");
+            log.info("-------------------< LicenseScan: Analysis >------------------");
+            log.info("NOTE: For artifacts with multiple licenses, violation will be marked only when all licenses match the denylist.");
+            for (String forbiddenLicense : forbiddenLicenses) {
+                List<String> array = violationsMap.get(forbiddenLicense);
+                if (!array.isEmpty()) {
+                    log.warn("Found " + array.size() + " violations for license '" + forbiddenLicense + "':");
+                    for (String artifact : array) {
+                        log.warn(" - " + artifact);
+                        List<String> path = pathsMap.get(artifact);
+                        if (path != null) {
+                            log.warn("   via " + String.join(" > ", path.subList(0, path.size() - 1)));
+                        }
+                    }
+                    potentiallyFailBuild = true;
+                }
+            }
+        }
+        return potentiallyFailBuild;
+    }
+
+    /**
+     * Returns the artifacts of a violations map, each one once.
+     *
+     * @param violationsMap Map of type {key: forbiddenLicense, value: listOf[artifact GAV label]}
+     * @return Set of artifact GAV labels.
+     */
+    protected static Set<String> violatingArtifacts(final Map<String, List<String>> violationsMap) {
+        Set<String> artifacts = new LinkedHashSet<>();
+        for (List<String> violations : violationsMap.values()) {
+            artifacts.addAll(violations);
+        }
+        return artifacts;
+    }
+
+    /**
+     * Parses the configured report formats. The special value 'none' disables
+     * the generation of the reports.
+     *
+     * @return the formats of the reports to produce.
+     * @throws MojoExecutionException When an unknown format is configured.
+     */
+    protected Set<ReportFormat> getReportFormats() throws MojoExecutionException {
+        Set<ReportFormat> formats = EnumSet.noneOf(ReportFormat.class);
+        if (reportFormats == null) {
+            return formats;
+        }
+        for (String reportFormat : reportFormats) {
+            if ("none".equalsIgnoreCase(reportFormat.trim())) {
+                return EnumSet.noneOf(ReportFormat.class);
+            }
+            try {
+                formats.add(ReportFormat.fromName(reportFormat));
+            } catch (IllegalArgumentException e) {
+                throw new MojoExecutionException(e.getMessage() + ", supported values are 'json', 'html' and 'none'");
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Parses the configured policy for the artifacts which cannot be resolved.
+     *
+     * @return the policy.
+     * @throws MojoExecutionException When an unknown policy is configured.
+     */
+    protected UnresolvedPolicy getUnresolvedPolicy() throws MojoExecutionException {
+        if (unresolvedPolicy == null) {
+            return UnresolvedPolicy.FAIL_FAST;
+        }
+        try {
+            return UnresolvedPolicy.fromName(unresolvedPolicy);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage() + ", supported values are 'fail-fast', 'warn' and 'fail-build'");
+        }
+    }
+
+    /**
+     * Fails the build when some artifacts could not be resolved and the
+     * policy asks so.
+     */
+    protected void checkUnresolved(final UnresolvedPolicy policy,
+                                   final Map<String, String> unresolvedArtifacts) throws MojoFailureException {
+        if (policy == UnresolvedPolicy.FAIL_BUILD && !unresolvedArtifacts.isEmpty()) {
+            throw new MojoFailureException("Failing build: " + unresolvedArtifacts.size()
+                    + " artifacts could not be resolved");
+        }
+    }
+
+    protected void logReportFiles(final Map<ReportFormat, String> reportFiles) {
+        for (Map.Entry<ReportFormat, String> reportFile : reportFiles.entrySet()) {
+            getLog().info(reportFile.getKey() + " report generated: " + reportFile.getValue());
+        }
+    }
+
+    /**
+     * Prints the metrics of the audit and, when configured, writes them next
+     * to the reports.
+     */
+    protected void reportMetrics(final AuditMetrics auditMetrics,
+                                 final BuildLogger buildLogger,
+                                 final ReportBuilder reportBuilder) {
+        buildLogger.logMetrics(auditMetrics);
+        buildLogger.logSlowestArtifacts(auditMetrics, slowestArtifacts);
+        if (!writeMetrics) {
+            return;
+        }
+        try {
+            getLog().info("Metrics written: " + auditMetrics.save(reportBuilder.getReportDirectory()));
+        } catch (IOException e) {
+            getLog().warn("Unable to write the audit metrics: " + e.getMessage());
+        }
+    }
+
+    protected LicenseCache loadLicenseCache() {
+        if (!useCache) {
+            return null;
+        }
+        Path directory = cacheDirectory != null
+                ? cacheDirectory.toPath()
+                : Paths.get(session.getLocalRepository().getBasedir(), ".cache", "licensescan");
+        try {
+            return LicenseCache.load(directory);
+        } catch (IOException e) {
+            getLog().warn("Unable to read the license cache in " + directory + ", starting with an empty cache: " + e.getMessage());
+            return new LicenseCache(directory.resolve(LicenseCache.CACHE_FILE_NAME));
+        }
+    }
+
+    protected void saveLicenseCache(final LicenseCache licenseCache) {
+        if (licenseCache == null) {
+            return;
+        }
+        try {
+            licenseCache.save();
+        } catch (IOException e) {
+            getLog().warn("Unable to write the license cache: " + e.getMessage());
+        }
+    }
+
+    protected void printWarning() {
+        Log log = getLog();
+        log.warn("+--------------------------------------------------------------------------------------------------------+");
+        log.warn("| Usage of configuration terms 'blacklistedLicenses' and 'failBuildOnBlacklisted' is deprecated, and it  |");
+        log.warn("| will be removed in the next major release. Use 'forbiddenLicenses' and 'failBuildOnViolation' instead. |");
+        log.warn("+--------------------------------------------------------------------------------------------------------+");
+    }
+
+}
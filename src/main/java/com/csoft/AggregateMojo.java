@@ -0,0 +1,166 @@
+package com.csoft;
+
+import com.csoft.services.AuditMetrics;
+import com.csoft.services.BuildLogger;
+import com.csoft.services.DependencyAnalyzer;
+import com.csoft.services.LicenseCache;
+import com.csoft.services.LicenseScanner;
+import com.csoft.services.ReportBuilder;
+import com.csoft.services.ReportFormat;
+import com.csoft.services.ResolutionResult;
+import com.csoft.services.UnresolvedPolicy;
+import com.csoft.utils.ArtifactUtils;
+import com.csoft.utils.ClassifiedDependencies;
+import com.csoft.utils.DependencyPaths;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregate Mojo for the LicenseScan Maven Plugin.
+ * <p>
+ * Runs once at the root of a reactor build and audits the union of the
+ * dependencies of all its modules, producing a single consolidated report
+ * listing the modules that use each artifact.
+ * <p>
+ * (C) 2018-2023 Carlo Morelli
+ * Released with MIT License
+ */
+@Mojo(
+        name = "audit-aggregate",
+        aggregator = true,
+        requiresDependencyCollection = ResolutionScope.COMPILE_PLUS_RUNTIME,
+        requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME
+)
+public class AggregateMojo extends AbstractLicenseScanMojo {
+
+    public AggregateMojo() {
+    }
+
+    public AggregateMojo(final MavenProject proj,
+                         final MavenSession session,
+                         final ProjectBuilder builder,
+                         final Log log) {
+        super(proj, session, builder, log);
+    }
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+
+        printWarning();
+        AuditMetrics auditMetrics = new AuditMetrics();
+        UnresolvedPolicy policy = getUnresolvedPolicy();
+        LicenseCache licenseCache = loadLicenseCache();
+        DependencyAnalyzer dependencyAnalyzer = createDependencyAnalyzer(licenseCache, auditMetrics, policy);
+        LicenseScanner licenseScanner = createLicenseScanner();
+        BuildLogger buildLogger = new BuildLogger(printLicenses, getLog());
+        ReportBuilder reportBuilder = new ReportBuilder(project);
+        reportBuilder.setAuditMetrics(auditMetrics);
+
+        List<MavenProject> modules = session.getProjects();
+        buildLogger.logHeadAnalysis(project);
+        buildLogger.logReactorModules(modules);
+
+        // collect the union of the dependencies of all the modules, skipping the modules themselves
+        long start = System.nanoTime();
+        Set<String> reactorIds = new HashSet<>();
+        for (MavenProject module : modules) {
+            reactorIds.add(moduleId(module) + ":" + module.getVersion());
+        }
+        Map<String, Artifact> baseDeps = new LinkedHashMap<>();
+        Map<String, Artifact> transitiveDeps = new LinkedHashMap<>();
+        Map<String, List<String>> modulesMap = new LinkedHashMap<>();
+        List<DependencyPaths> modulePaths = new ArrayList<>(modules.size());
+        for (MavenProject module : modules) {
+            ClassifiedDependencies dependencies = ArtifactUtils.classifyDependencies(module);
+            modulePaths.add(ArtifactUtils.dependencyPaths(module));
+            String moduleId = moduleId(module);
+            collect(dependencies.getDirect(), moduleId, reactorIds, baseDeps, modulesMap);
+            collect(dependencies.getTransitive(), moduleId, reactorIds, transitiveDeps, modulesMap);
+        }
+
+        auditMetrics.recordPhase(AuditMetrics.Phase.COLLECTION, start);
+
+        // resolve every unique artifact once for the whole reactor
+        start = System.nanoTime();
+        ResolutionResult resolution = dependencyAnalyzer.resolve(baseDeps.values(), transitiveDeps.values());
+        auditMetrics.recordPhase(AuditMetrics.Phase.RESOLUTION, start);
+        saveLicenseCache(licenseCache);
+        buildLogger.logBaseDeps(resolution.getDirectLicenses());
+        buildLogger.logTransitiveDeps(resolution.getTransitiveLicenses());
+        buildLogger.logUnresolvedDeps(resolution.getUnresolvedArtifacts());
+
+        Map<String, List<String>> licensesMap = resolution.getAllLicenses();
+        start = System.nanoTime();
+        Map<String, List<String>> violationsMap = licenseScanner.scan(licensesMap);
+        auditMetrics.recordPhase(AuditMetrics.Phase.SCAN, start);
+        auditMetrics.addRegexEvaluations(licenseScanner.getRegexEvaluations());
+        buildLogger.logScanStatistics(licenseScanner);
+        Map<String, List<String>> pathsMap = shortestPaths(modulePaths, violatingArtifacts(violationsMap));
+        Map<ReportFormat, String> reportFiles;
+        try {
+            reportFiles = reportBuilder.buildReports(getReportFormats(), licensesMap, violationsMap, modulesMap,
+                    resolution.getUnresolvedArtifacts(), pathsMap);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        boolean buildHasViolations = violationAnalysis(violationsMap, pathsMap);
+        logReportFiles(reportFiles);
+        reportMetrics(auditMetrics, buildLogger, reportBuilder);
+
+        if (failBuildOnViolation && buildHasViolations) {
+            throw new MojoFailureException("Failing build");
+        }
+        checkUnresolved(policy, resolution.getUnresolvedArtifacts());
+    }
+
+    /**
+     * Returns the shortest inclusion path of each input artifact across all
+     * the modules of the reactor using it.
+     */
+    private static Map<String, List<String>> shortestPaths(final List<DependencyPaths> modulePaths,
+                                                           final Set<String> gavLabels) {
+        Map<String, List<String>> pathsMap = new LinkedHashMap<>();
+        for (DependencyPaths paths : modulePaths) {
+            paths.getTransitivePaths(gavLabels).forEach((gavLabel, path) -> pathsMap.merge(gavLabel, path,
+                    (shortest, other) -> other.size() < shortest.size() ? other : shortest));
+        }
+        return pathsMap;
+    }
+
+    private static void collect(final Set<Artifact> dependencies,
+                                final String moduleId,
+                                final Set<String> reactorIds,
+                                final Map<String, Artifact> collected,
+                                final Map<String, List<String>> modulesMap) {
+        for (Artifact artifact : dependencies) {
+            if (reactorIds.contains(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion())) {
+                continue;
+            }
+            String gavLabel = ArtifactUtils.getGavLabel(artifact);
+            collected.putIfAbsent(gavLabel, artifact);
+            List<String> usages = modulesMap.computeIfAbsent(gavLabel, key -> new ArrayList<>());
+            if (!usages.contains(moduleId)) {
+                usages.add(moduleId);
+            }
+        }
+    }
+
+    private static String moduleId(final MavenProject module) {
+        return module.getGroupId() + ":" + module.getArtifactId();
+    }
+
+}
@@ -1,17 +1,23 @@
 package com.csoft;
 
+import com.csoft.services.AuditFingerprint;
+import com.csoft.services.AuditMetrics;
 import com.csoft.services.BuildLogger;
 import com.csoft.services.DependencyAnalyzer;
+import com.csoft.services.LicenseCache;
 import com.csoft.services.LicenseScanner;
 import com.csoft.services.ReportBuilder;
+import com.csoft.services.ReportFormat;
+import com.csoft.services.ResolutionResult;
+import com.csoft.services.UnresolvedPolicy;
 import com.csoft.utils.ArtifactUtils;
+import com.csoft.utils.ClassifiedDependencies;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugin.logging.Log;
-import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
@@ -19,10 +25,12 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Main Mojo for the LicenseScan Maven Plugin.
@@ -35,25 +43,19 @@ import java.util.Set;
         requiresDependencyCollection = ResolutionScope.COMPILE_PLUS_RUNTIME,
         requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME
 )
-public class MainMojo extends AbstractMojo {
+public class MainMojo extends AbstractLicenseScanMojo {
 
-    @Parameter(defaultValue = "${project}", readonly = true, required = true)
-    private MavenProject project;
+    @Parameter(property = "incremental", defaultValue = "false")
+    private boolean incremental;
 
-    @Parameter(defaultValue = "${session}", readonly = true, required = true)
-    private MavenSession session;
+    @Parameter(property = "failFastOnViolation", defaultValue = "false")
+    private boolean failFastOnViolation;
 
-    @Component
-    private ProjectBuilder projectBuilder;
+    @Parameter(property = "failFastReports", defaultValue = "false")
+    private boolean failFastReports;
 
-    @Parameter(property = "printLicenses", defaultValue = "false")
-    private boolean printLicenses;
-
-    @Parameter(property = "forbiddenLicenses", alias = "blacklistedLicenses")
-    private List<String> forbiddenLicenses;
-
-    @Parameter(property = "failBuildOnViolation", alias = "failBuildOnBlacklisted", defaultValue = "false")
-    private boolean failBuildOnViolation;
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
 
     public MainMojo() {
     }
@@ -62,85 +64,195 @@ public class MainMojo extends AbstractMojo {
                     final MavenSession session,
                     final ProjectBuilder builder,
                     final Log log) {
-        setLog(log);
-        this.project = proj;
-        this.session = session;
-        this.projectBuilder = builder;
-        this.forbiddenLicenses = new ArrayList<>();
+        super(proj, session, builder, log);
     }
 
-    public void setPrintLicenses(boolean printLicenses) {
-        this.printLicenses = printLicenses;
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
     }
 
-    public void setForbiddenLicenses(List<String> forbiddenLicenses) {
-        this.forbiddenLicenses = forbiddenLicenses;
+    public void setFailFastOnViolation(boolean failFastOnViolation) {
+        this.failFastOnViolation = failFastOnViolation;
     }
 
-    public void setFailBuildOnViolation(boolean failBuildOnViolation) {
-        this.failBuildOnViolation = failBuildOnViolation;
+    public void setFailFastReports(boolean failFastReports) {
+        this.failFastReports = failFastReports;
+    }
+
+    public void setPlugin(PluginDescriptor plugin) {
+        this.plugin = plugin;
     }
 
     public void execute() throws MojoExecutionException, MojoFailureException {
 
         printWarning();
-        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder);
-        LicenseScanner licenseScanner = new LicenseScanner(dependencyAnalyzer, forbiddenLicenses);
-        BuildLogger buildLogger = new BuildLogger(printLicenses, getLog());
+        AuditMetrics auditMetrics = new AuditMetrics();
+        Set<ReportFormat> reportFormats = getReportFormats();
+        UnresolvedPolicy policy = getUnresolvedPolicy();
         ReportBuilder reportBuilder = new ReportBuilder(project);
+        reportBuilder.setAuditMetrics(auditMetrics);
+        long start = System.nanoTime();
+        ClassifiedDependencies dependencies = ArtifactUtils.classifyDependencies(project);
+        Set<Artifact> baseDeps = dependencies.getDirect();
+        Set<Artifact> transitiveDeps = dependencies.getTransitive();
+        auditMetrics.recordPhase(AuditMetrics.Phase.COLLECTION, start);
 
-        Set<Artifact> baseDeps = ArtifactUtils.getDirectDependencies(project);
-        Set<Artifact> transitiveDeps = ArtifactUtils.getTransitiveDependencies(project);
-        Set<Artifact> allDeps = ArtifactUtils.getCumulativeDependencies(project);
+        String fingerprint = null;
+        if (incremental) {
+            fingerprint = computeFingerprint(dependencies, reportFormats);
+            AuditFingerprint previous = loadFingerprint(reportBuilder.getReportDirectory());
+            if (previous != null && previous.getFingerprint().equals(fingerprint)) {
+                if (reportBuilder.hasReports(reportFormats)) {
+                    reusePreviousAudit(previous);
+                    return;
+                }
+                getLog().info("Reports of the previous audit missing, running a full audit");
+            }
+        }
+
+        LicenseCache licenseCache = loadLicenseCache();
+        DependencyAnalyzer dependencyAnalyzer = createDependencyAnalyzer(licenseCache, auditMetrics, policy);
+        LicenseScanner licenseScanner = createLicenseScanner();
+        BuildLogger buildLogger = new BuildLogger(printLicenses, getLog());
         buildLogger.logHeadAnalysis(project);
-        buildLogger.logBaseDeps(dependencyAnalyzer.analyze(baseDeps));
-        buildLogger.logTransitiveDeps(dependencyAnalyzer.analyze(transitiveDeps));
 
-        Map<String, List<String>> licensesMap = dependencyAnalyzer.analyze(allDeps);
-        Map<String, List<String>> violationsMap = licenseScanner.scan(allDeps);
-        String jsonFile;
-        String htmlFile;
+        // resolve every artifact once and share the outcome across all the consumers
+        start = System.nanoTime();
+        AtomicReference<String> firstViolation = new AtomicReference<>();
+        ResolutionResult resolution = failFastOnViolation && failBuildOnViolation
+                ? dependencyAnalyzer.resolve(baseDeps, transitiveDeps, (artifact, licenses) -> {
+                    // the build is bound to fail: stop resolving at the first violation
+                    if (licenseScanner.check(licenses) == null) {
+                        return false;
+                    }
+                    firstViolation.set(artifact);
+                    return true;
+                })
+                : dependencyAnalyzer.resolve(baseDeps, transitiveDeps);
+        auditMetrics.recordPhase(AuditMetrics.Phase.RESOLUTION, start);
+        saveLicenseCache(licenseCache);
+        if (firstViolation.get() != null) {
+            failFast(firstViolation.get(), resolution, licenseScanner, reportBuilder, reportFormats);
+        }
+        buildLogger.logBaseDeps(resolution.getDirectLicenses());
+        buildLogger.logTransitiveDeps(resolution.getTransitiveLicenses());
+        buildLogger.logUnresolvedDeps(resolution.getUnresolvedArtifacts());
+
+        Map<String, List<String>> licensesMap = resolution.getAllLicenses();
+        start = System.nanoTime();
+        Map<String, List<String>> violationsMap = licenseScanner.scan(licensesMap);
+        auditMetrics.recordPhase(AuditMetrics.Phase.SCAN, start);
+        auditMetrics.addRegexEvaluations(licenseScanner.getRegexEvaluations());
+        buildLogger.logScanStatistics(licenseScanner);
+        // the graph is already resolved by Maven: only the violating artifacts get their path
+        Map<String, List<String>> pathsMap = ArtifactUtils.dependencyPaths(project)
+                .getTransitivePaths(violatingArtifacts(violationsMap));
+        Map<ReportFormat, String> reportFiles;
         try {
-            jsonFile = reportBuilder.buildJsonReport(licensesMap, violationsMap);
-            htmlFile = reportBuilder.buildHtmlReport(licensesMap, violationsMap);
+            reportFiles = reportBuilder.buildReports(reportFormats, licensesMap, violationsMap, null,
+                    resolution.getUnresolvedArtifacts(), pathsMap);
         } catch (IOException e) {
             throw new MojoExecutionException(e.getMessage());
         }
-        boolean buildHasViolations = violationAnalysis(violationsMap);
-        getLog().info("JSON report generated: " + jsonFile);
-        getLog().info("HTML report generated: " + htmlFile);
+        boolean buildHasViolations = violationAnalysis(violationsMap, pathsMap);
+        logReportFiles(reportFiles);
+        reportMetrics(auditMetrics, buildLogger, reportBuilder);
+        // unresolved artifacts may resolve at the next run: never reuse an incomplete audit
+        if (fingerprint != null && resolution.getUnresolvedArtifacts().isEmpty()) {
+            saveFingerprint(new AuditFingerprint(fingerprint, violationsMap, resolution.getDirectLicenses(),
+                    resolution.getTransitiveLicenses()), reportBuilder.getReportDirectory());
+        }
+
+        checkViolations(buildHasViolations);
+        checkUnresolved(policy, resolution.getUnresolvedArtifacts());
+    }
+
+    /**
+     * Logs the dependencies and the violations recorded by the previous audit,
+     * whose reports are kept as they are, and fails the build as it did.
+     */
+    private void reusePreviousAudit(final AuditFingerprint previous) throws MojoFailureException {
+        getLog().info("Dependencies and configuration unchanged since the previous audit, reusing its results");
+        BuildLogger buildLogger = new BuildLogger(printLicenses, getLog());
+        buildLogger.logHeadAnalysis(project);
+        buildLogger.logBaseDeps(previous.getDirectLicenses());
+        buildLogger.logTransitiveDeps(previous.getTransitiveLicenses());
+        Map<String, List<String>> previousViolations = previous.getViolationsMap();
+        checkViolations(violationAnalysis(previousViolations, ArtifactUtils.dependencyPaths(project)
+                .getTransitivePaths(violatingArtifacts(previousViolations))));
+    }
+
+    /**
+     * Fails the build right after the resolution was stopped by a violation,
+     * logging the violations among the artifacts resolved so far and, when
+     * configured, writing the partial reports. The outputs of a previous audit
+     * describe other dependencies, hence they are deleted in any case.
+     */
+    private void failFast(final String violatingArtifact,
+                          final ResolutionResult resolution,
+                          final LicenseScanner licenseScanner,
+                          final ReportBuilder reportBuilder,
+                          final Set<ReportFormat> reportFormats) throws MojoExecutionException, MojoFailureException {
+        Map<String, List<String>> licensesMap = resolution.getAllLicenses();
+        Map<String, List<String>> violationsMap = licenseScanner.scan(licensesMap);
+        Map<String, List<String>> pathsMap = ArtifactUtils.dependencyPaths(project)
+                .getTransitivePaths(violatingArtifacts(violationsMap));
+        violationAnalysis(violationsMap, pathsMap);
+        deletePreviousOutputs(reportBuilder);
+        if (failFastReports) {
+            try {
+                logReportFiles(reportBuilder.buildReports(reportFormats, licensesMap, violationsMap, null,
+                        resolution.getUnresolvedArtifacts(), pathsMap));
+            } catch (IOException e) {
+                throw new MojoExecutionException(e.getMessage());
+            }
+        }
+        throw new MojoFailureException("Failing build: forbidden license found for " + violatingArtifact);
+    }
+
+    private void deletePreviousOutputs(final ReportBuilder reportBuilder) {
+        Path reportDirectory = reportBuilder.getReportDirectory();
+        try {
+            reportBuilder.deleteReports();
+            AuditFingerprint.delete(reportDirectory);
+            Files.deleteIfExists(reportDirectory.resolve(AuditMetrics.METRICS_FILE_NAME));
+        } catch (IOException e) {
+            getLog().warn("Unable to delete the outputs of the previous audit: " + e.getMessage());
+        }
+    }
 
+    private void checkViolations(final boolean buildHasViolations) throws MojoFailureException {
         if (failBuildOnViolation && buildHasViolations) {
             throw new MojoFailureException("Failing build");
         }
     }
 
-    private boolean violationAnalysis(final Map<String, List<String>> violationsMap) {
-        Log log = getLog();
-        boolean potentiallyFailBuild = false;
-        Set<String> forbiddenLicenses = violationsMap.keySet();
-        if (!forbiddenLicenses.isEmpty()) {
-            log.info("");
-            log.info("-------------------< LicenseScan: Analysis >------------------");
-            log.info("NOTE: For artifacts with multiple licenses, violation will be marked only when all licenses match the denylist.");
-            for (String forbiddenLicense : forbiddenLicenses) {
-                List<String> array = violationsMap.get(forbiddenLicense);
-                if (!array.isEmpty()) {
-                    log.warn("Found " + array.size() + " violations for license '" + forbiddenLicense + "':");
-                    array.forEach(artifact -> log.warn(" - " + artifact));
-                    potentiallyFailBuild = true;
-                }
-            }
+    private String computeFingerprint(final ClassifiedDependencies dependencies,
+                                      final Set<ReportFormat> reportFormats) throws MojoExecutionException {
+        try {
+            return AuditFingerprint.compute(dependencies.getCumulative(), dependencies.getDirect(),
+                    forbiddenLicenses, reportFormats, plugin != null ? plugin.getVersion() : null,
+                    getOutcomeOptions());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to compute the dependencies fingerprint: " + e.getMessage());
+        }
+    }
+
+    private AuditFingerprint loadFingerprint(final Path reportDirectory) {
+        try {
+            return AuditFingerprint.load(reportDirectory);
+        } catch (IOException e) {
+            getLog().warn("Unable to read the previous audit fingerprint, running a full audit: " + e.getMessage());
+            return null;
         }
-        return potentiallyFailBuild;
     }
 
-    private void printWarning() {
-        Log log = getLog();
-        log.warn("+--------------------------------------------------------------------------------------------------------+");
-        log.warn("| Usage of configuration terms 'blacklistedLicenses' and 'failBuildOnBlacklisted' is deprecated, and it  |");
-        log.warn("| will be removed in the next major release. Use 'forbiddenLicenses' and 'failBuildOnViolation' instead. |");
-        log.warn("+--------------------------------------------------------------------------------------------------------+");
+    private void saveFingerprint(final AuditFingerprint fingerprint, final Path reportDirectory) {
+        try {
+            fingerprint.save(reportDirectory);
+        } catch (IOException e) {
+            getLog().warn("Unable to write the audit fingerprint: " + e.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,237 @@
+package com.csoft.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.csoft.utils.ArtifactUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Class that records the outcome of an audit together with a fingerprint of
+ * its inputs, so that an incremental audit can reuse it as long as neither the
+ * dependencies nor the configuration of the project changed.
+ * <p>
+ * The fingerprint covers the GAV, scope, type and classifier of every
+ * dependency, the content of the SNAPSHOT dependency files, the forbidden
+ * licenses, the requested report formats, the options changing how the
+ * licenses are resolved or matched, and the version of the plugin, whose
+ * releases may resolve or match the same licenses differently. Released
+ * artifacts are immutable once published, so their GAV identifies their content.
+ * <p>
+ * Along with the violations, the resolved licenses are recorded, to be
+ * printed again when the audit is reused.
+ */
+public class AuditFingerprint {
+
+    public static final String FINGERPRINT_FILE_NAME = "license-scan-fingerprint.json";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String fingerprint;
+    private final Map<String, List<String>> violationsMap;
+    private final Map<String, List<String>> directLicenses;
+    private final Map<String, List<String>> transitiveLicenses;
+
+    public AuditFingerprint(final String fingerprint,
+                            final Map<String, List<String>> violationsMap,
+                            final Map<String, List<String>> directLicenses,
+                            final Map<String, List<String>> transitiveLicenses) {
+        this.fingerprint = fingerprint;
+        this.violationsMap = Collections.unmodifiableMap(new LinkedHashMap<>(violationsMap));
+        this.directLicenses = Collections.unmodifiableMap(new LinkedHashMap<>(directLicenses));
+        this.transitiveLicenses = Collections.unmodifiableMap(new LinkedHashMap<>(transitiveLicenses));
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Map<String, List<String>> getViolationsMap() {
+        return violationsMap;
+    }
+
+    public Map<String, List<String>> getDirectLicenses() {
+        return directLicenses;
+    }
+
+    public Map<String, List<String>> getTransitiveLicenses() {
+        return transitiveLicenses;
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of an audit.
+     *
+     * @param dependencies       All the dependencies under audit.
+     * @param directDependencies The direct dependencies among them.
+     * @param forbiddenLicenses  The configured forbidden licenses.
+     * @param reportFormats      The requested report formats.
+     * @return the hex-encoded fingerprint.
+     * @throws IOException When a SNAPSHOT dependency file cannot be read.
+     */
+    public static String compute(final Collection<Artifact> dependencies,
+                                 final Set<Artifact> directDependencies,
+                                 final List<String> forbiddenLicenses,
+                                 final Set<ReportFormat> reportFormats) throws IOException {
+        return compute(dependencies, directDependencies, forbiddenLicenses, reportFormats, null,
+                Collections.<String>emptyList());
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of an audit.
+     *
+     * @param dependencies       All the dependencies under audit.
+     * @param directDependencies The direct dependencies among them.
+     * @param forbiddenLicenses  The configured forbidden licenses.
+     * @param reportFormats      The requested report formats.
+     * @param pluginVersion      The version of the plugin running the audit, null when unknown.
+     * @param options            The settings of the options changing the audit outcome, e.g. 'spdxMatching=true'.
+     * @return the hex-encoded fingerprint.
+     * @throws IOException When a SNAPSHOT dependency file cannot be read.
+     */
+    public static String compute(final Collection<Artifact> dependencies,
+                                 final Set<Artifact> directDependencies,
+                                 final List<String> forbiddenLicenses,
+                                 final Set<ReportFormat> reportFormats,
+                                 final String pluginVersion,
+                                 final Collection<String> options) throws IOException {
+        List<String> artifactLines = new ArrayList<>(dependencies.size());
+        for (Artifact artifact : dependencies) {
+            artifactLines.add(ArtifactUtils.getGavLabel(artifact)
+                    + ":" + artifact.getType()
+                    + ":" + artifact.getClassifier()
+                    + (directDependencies.contains(artifact) ? ":direct" : ":transitive")
+                    + ":" + contentChecksum(artifact));
+        }
+        // the resolution order of the dependencies does not change the audit outcome
+        Collections.sort(artifactLines);
+        MessageDigest digest = newDigest();
+        for (String line : artifactLines) {
+            update(digest, "artifact", line);
+        }
+        if (forbiddenLicenses != null) {
+            // order matters here: the first matching entry is the one reported
+            for (String forbiddenLicense : forbiddenLicenses) {
+                update(digest, "forbidden", forbiddenLicense);
+            }
+        }
+        for (ReportFormat reportFormat : reportFormats) {
+            update(digest, "format", reportFormat.name());
+        }
+        if (pluginVersion != null) {
+            update(digest, "plugin", pluginVersion);
+        }
+        for (String option : options) {
+            update(digest, "option", option);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Loads the fingerprint stored in the input directory.
+     *
+     * @param directory Directory hosting the fingerprint file.
+     * @return the stored {@link AuditFingerprint}, or null when none was stored.
+     * @throws IOException When the fingerprint file exists but cannot be read.
+     */
+    public static AuditFingerprint load(final Path directory) throws IOException {
+        Path fingerprintFile = directory.resolve(FINGERPRINT_FILE_NAME);
+        if (!Files.isRegularFile(fingerprintFile)) {
+            return null;
+        }
+        FingerprintFile content = JSON_MAPPER.readValue(fingerprintFile.toFile(), FingerprintFile.class);
+        if (content.fingerprint == null || content.violationsMap == null
+                || content.directLicenses == null || content.transitiveLicenses == null) {
+            return null;
+        }
+        return new AuditFingerprint(content.fingerprint, content.violationsMap,
+                content.directLicenses, content.transitiveLicenses);
+    }
+
+    /**
+     * Stores this fingerprint in the input directory.
+     *
+     * @param directory Directory hosting the fingerprint file.
+     * @throws IOException When the fingerprint file cannot be written.
+     */
+    public void save(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FingerprintFile content = new FingerprintFile();
+        content.fingerprint = fingerprint;
+        content.violationsMap = violationsMap;
+        content.directLicenses = directLicenses;
+        content.transitiveLicenses = transitiveLicenses;
+        JSON_MAPPER.writeValue(directory.resolve(FINGERPRINT_FILE_NAME).toFile(), content);
+    }
+
+    /**
+     * Deletes the fingerprint stored in the input directory, if any, so that
+     * the next incremental audit runs in full.
+     *
+     * @param directory Directory hosting the fingerprint file.
+     * @throws IOException When the fingerprint file cannot be deleted.
+     */
+    public static void delete(final Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve(FINGERPRINT_FILE_NAME));
+    }
+
+    private static String contentChecksum(final Artifact artifact) throws IOException {
+        File file = artifact.getFile();
+        if (!artifact.isSnapshot() || file == null || !file.isFile()) {
+            return "-";
+        }
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String kind, final String value) {
+        digest.update((kind + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Internal class mapping the fingerprint file content.
+     */
+    private static class FingerprintFile {
+        public String fingerprint;
+        public Map<String, List<String>> violationsMap;
+        public Map<String, List<String>> directLicenses;
+        public Map<String, List<String>> transitiveLicenses;
+    }
+}
@@ -0,0 +1,316 @@
+package com.csoft.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Class that collects the timings and the counters of an audit, so that the
+ * time spent in each phase can be told apart. Instances are safe to use from
+ * the resolver and renderer threads.
+ */
+public class AuditMetrics {
+
+    public static final String METRICS_FILE_NAME = "license-scan-metrics.json";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    /**
+     * The timed phases of an audit.
+     */
+    public enum Phase {
+        COLLECTION("collection"),
+        RESOLUTION("resolution"),
+        SCAN("scan"),
+        JSON_RENDERING("json rendering"),
+        HTML_RENDERING("html rendering");
+
+        private final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+    private final List<ArtifactResolution> resolutions = new ArrayList<>();
+    private final AtomicLong artifactsResolved = new AtomicLong();
+    private final AtomicLong licenseCacheHits = new AtomicLong();
+    private final AtomicLong reactorCacheHits = new AtomicLong();
+    private final AtomicLong pomsRead = new AtomicLong();
+    private final AtomicLong projectsBuilt = new AtomicLong();
+    private final AtomicLong regexEvaluations = new AtomicLong();
+    private final AtomicLong unresolved = new AtomicLong();
+    private final AtomicLong jarLicenses = new AtomicLong();
+
+    /**
+     * Records the time elapsed since the input start time for a phase.
+     *
+     * @param phase      The phase.
+     * @param startNanos The {@link System#nanoTime()} at which the phase started.
+     */
+    public void recordPhase(final Phase phase, final long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        synchronized (phaseNanos) {
+            phaseNanos.merge(phase, elapsed, Long::sum);
+        }
+    }
+
+    /**
+     * Records the time spent resolving the licenses of one artifact.
+     *
+     * @param gavLabel    The artifact label.
+     * @param startNanos  The {@link System#nanoTime()} at which the resolution started.
+     * @param parentDepth The depth of the parent chain walked for the artifact, or -1 when not walked.
+     */
+    public void recordArtifactResolution(final String gavLabel, final long startNanos, final int parentDepth) {
+        long elapsed = System.nanoTime() - startNanos;
+        artifactsResolved.incrementAndGet();
+        synchronized (resolutions) {
+            resolutions.add(new ArtifactResolution(gavLabel, elapsed, parentDepth));
+        }
+    }
+
+    public void incrementLicenseCacheHits() {
+        licenseCacheHits.incrementAndGet();
+    }
+
+    public void incrementReactorCacheHits() {
+        reactorCacheHits.incrementAndGet();
+    }
+
+    public void incrementPomsRead() {
+        pomsRead.incrementAndGet();
+    }
+
+    public void incrementProjectsBuilt() {
+        projectsBuilt.incrementAndGet();
+    }
+
+    public void incrementUnresolved() {
+        unresolved.incrementAndGet();
+    }
+
+    public void incrementJarLicenses() {
+        jarLicenses.incrementAndGet();
+    }
+
+    public void addRegexEvaluations(final long count) {
+        regexEvaluations.addAndGet(count);
+    }
+
+    /**
+     * Returns the duration of the phases that were run, in execution order.
+     *
+     * @return Map of type {key: phase, value: nanoseconds}
+     */
+    public Map<Phase, Long> getPhaseNanos() {
+        synchronized (phaseNanos) {
+            return Collections.unmodifiableMap(new EnumMap<>(phaseNanos));
+        }
+    }
+
+    /**
+     * Returns the sorted durations of the single artifact resolutions.
+     *
+     * @return List of nanoseconds, from the fastest to the slowest.
+     */
+    public List<Long> getSortedResolutionNanos() {
+        List<Long> sorted = new ArrayList<>();
+        synchronized (resolutions) {
+            for (ArtifactResolution resolution : resolutions) {
+                sorted.add(resolution.getNanos());
+            }
+        }
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Returns the artifacts which took the longest to resolve.
+     *
+     * @param count The maximum number of artifacts to return.
+     * @return List of resolutions, from the slowest.
+     */
+    public List<ArtifactResolution> getSlowestResolutions(final int count) {
+        List<ArtifactResolution> sorted;
+        synchronized (resolutions) {
+            sorted = new ArrayList<>(resolutions);
+        }
+        sorted.sort(Comparator.comparingLong(ArtifactResolution::getNanos).reversed());
+        return sorted.subList(0, Math.min(Math.max(count, 0), sorted.size()));
+    }
+
+    public long getArtifactsResolved() {
+        return artifactsResolved.get();
+    }
+
+    public long getLicenseCacheHits() {
+        return licenseCacheHits.get();
+    }
+
+    /**
+     * Returns the artifacts whose licenses were already resolved by another
+     * module of the reactor.
+     *
+     * @return long
+     */
+    public long getReactorCacheHits() {
+        return reactorCacheHits.get();
+    }
+
+    public long getPomsRead() {
+        return pomsRead.get();
+    }
+
+    public long getProjectsBuilt() {
+        return projectsBuilt.get();
+    }
+
+    public long getRegexEvaluations() {
+        return regexEvaluations.get();
+    }
+
+    /**
+     * Returns the artifacts whose licenses could not be resolved.
+     *
+     * @return long
+     */
+    public long getUnresolved() {
+        return unresolved.get();
+    }
+
+    /**
+     * Returns the artifacts whose licenses were detected inside their jar, as
+     * their metadata declares none.
+     *
+     * @return long
+     */
+    public long getJarLicenses() {
+        return jarLicenses.get();
+    }
+
+    /**
+     * Returns the value at the input percentile of a sorted list, using the
+     * nearest-rank method.
+     *
+     * @param sortedNanos The sorted values.
+     * @param percentile  The percentile, between 0 and 100.
+     * @return long
+     */
+    public static long percentile(final List<Long> sortedNanos, final int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.size());
+        return sortedNanos.get(Math.max(rank - 1, 0));
+    }
+
+    /**
+     * Returns the average of a non-empty list of values.
+     *
+     * @param nanos The values.
+     * @return long
+     */
+    public static long average(final List<Long> nanos) {
+        long total = 0;
+        for (Long value : nanos) {
+            total += value;
+        }
+        return total / nanos.size();
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds, keeping the sub-millisecond part.
+     *
+     * @param nanos The nanoseconds.
+     * @return double
+     */
+    public static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Writes the metrics in JSON format in the input directory.
+     *
+     * @param directory Directory hosting the metrics file.
+     * @return Path of the metrics file.
+     * @throws IOException When the metrics file cannot be written.
+     */
+    public Path save(final Path directory) throws IOException {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Map.Entry<Phase, Long> phase : getPhaseNanos().entrySet()) {
+            phases.put(phase.getKey().getLabel(), toMillis(phase.getValue()));
+        }
+        Map<String, Object> resolution = new LinkedHashMap<>();
+        List<Long> sorted = getSortedResolutionNanos();
+        resolution.put("count", sorted.size());
+        if (!sorted.isEmpty()) {
+            resolution.put("min", toMillis(sorted.get(0)));
+            resolution.put("avg", toMillis(average(sorted)));
+            resolution.put("p95", toMillis(percentile(sorted, 95)));
+            resolution.put("max", toMillis(sorted.get(sorted.size() - 1)));
+        }
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("artifactsResolved", getArtifactsResolved());
+        counters.put("licenseCacheHits", getLicenseCacheHits());
+        counters.put("reactorCacheHits", getReactorCacheHits());
+        counters.put("pomsRead", getPomsRead());
+        counters.put("projectsBuilt", getProjectsBuilt());
+        counters.put("unresolved", getUnresolved());
+        counters.put("jarLicenses", getJarLicenses());
+        counters.put("regexEvaluations", getRegexEvaluations());
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("phasesMillis", phases);
+        content.put("artifactResolutionMillis", resolution);
+        content.put("counters", counters);
+        Files.createDirectories(directory);
+        Path metricsFile = directory.resolve(METRICS_FILE_NAME);
+        JSON_MAPPER.writerWithDefaultPrettyPrinter().writeValue(metricsFile.toFile(), content);
+        return metricsFile;
+    }
+
+    /**
+     * The resolution of the licenses of a single artifact.
+     */
+    public static class ArtifactResolution {
+        private final String gavLabel;
+        private final long nanos;
+        private final int parentDepth;
+
+        ArtifactResolution(final String gavLabel, final long nanos, final int parentDepth) {
+            this.gavLabel = gavLabel;
+            this.nanos = nanos;
+            this.parentDepth = parentDepth;
+        }
+
+        public String getGavLabel() {
+            return gavLabel;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the depth of the parent chain walked for the artifact.
+         *
+         * @return int, or -1 when the artifact was found in a cache.
+         */
+        public int getParentDepth() {
+            return parentDepth;
+        }
+    }
+}
@@ -36,6 +36,19 @@ public class BuildLogger {
         log.info(" - path        : " + project.getFile().getPath());
     }
 
+    /**
+     * Prints the list of reactor modules covered by an aggregate LicenseScan.
+     *
+     * @param modules The projects of the reactor.
+     */
+    public void logReactorModules(final List<MavenProject> modules) {
+        log.info("");
+        log.info("---------------< LicenseScan: Reactor Modules >---------------");
+        for (MavenProject module : modules) {
+            log.info(" - module " + module.getGroupId() + ":" + module.getArtifactId() + ":" + module.getVersion());
+        }
+    }
+
     /**
      * Prints the Base Dependencies section of a LicenseScan.
      *
@@ -54,6 +67,100 @@ public class BuildLogger {
         logDeps(licensesMap, "-----------< LicenseScan: Transitive Dependencies >-----------", printLicenses);
     }
 
+    /**
+     * Prints the Unresolved Dependencies section of a LicenseScan, listing the
+     * artifacts whose licenses could not be resolved. Nothing is printed when
+     * every artifact was resolved.
+     *
+     * @param unresolvedArtifacts Map between artifact GAV label (key) and failure reason (value).
+     */
+    public void logUnresolvedDeps(final Map<String, String> unresolvedArtifacts) {
+        if (unresolvedArtifacts.isEmpty()) {
+            return;
+        }
+        log.info("");
+        log.info("-----------< LicenseScan: Unresolved Dependencies >-----------");
+        for (Map.Entry<String, String> unresolved : unresolvedArtifacts.entrySet()) {
+            log.warn(" - artifact " + unresolved.getKey());
+            log.warn("   reason: " + unresolved.getValue());
+        }
+    }
+
+    /**
+     * Prints, at debug level, the effectiveness of the verdict cache of a
+     * {@link LicenseScanner}.
+     *
+     * @param licenseScanner The scanner used for the analysis.
+     */
+    public void logScanStatistics(final LicenseScanner licenseScanner) {
+        int hits = licenseScanner.getVerdictHits();
+        int misses = licenseScanner.getVerdictMisses();
+        log.debug("LicenseScan verdict cache: " + hits + " hits, " + misses + " misses ("
+                + misses + " distinct license strings evaluated out of " + (hits + misses) + ")");
+    }
+
+    /**
+     * Prints a one-line summary of the metrics of a LicenseScan and, at debug
+     * level, the Metrics section with the time spent in each phase and the
+     * timings of the artifact resolutions.
+     *
+     * @param auditMetrics The metrics of the audit.
+     */
+    public void logMetrics(final AuditMetrics auditMetrics) {
+        long totalNanos = 0;
+        for (long phaseNanos : auditMetrics.getPhaseNanos().values()) {
+            totalNanos += phaseNanos;
+        }
+        String counters = auditMetrics.getArtifactsResolved() + " resolved ("
+                + auditMetrics.getLicenseCacheHits() + " license cache hits, "
+                + auditMetrics.getReactorCacheHits() + " reactor cache hits, "
+                + auditMetrics.getPomsRead() + " POMs read, "
+                + auditMetrics.getProjectsBuilt() + " projects built"
+                + (auditMetrics.getUnresolved() > 0 ? ", " + auditMetrics.getUnresolved() + " unresolved" : "")
+                + (auditMetrics.getJarLicenses() > 0 ? ", " + auditMetrics.getJarLicenses() + " licensed from jar" : "")
+                + ")";
+        log.info(String.format("LicenseScan metrics: %.1f ms, artifacts %s", AuditMetrics.toMillis(totalNanos), counters));
+
+        log.debug("");
+        log.debug("-------------------< LicenseScan: Metrics >-------------------");
+        for (Map.Entry<AuditMetrics.Phase, Long> phase : auditMetrics.getPhaseNanos().entrySet()) {
+            log.debug(String.format(" - %-15s: %10.1f ms", phase.getKey().getLabel(), AuditMetrics.toMillis(phase.getValue())));
+        }
+        List<Long> resolutionNanos = auditMetrics.getSortedResolutionNanos();
+        if (!resolutionNanos.isEmpty()) {
+            log.debug(String.format(" - per artifact   : min %.1f ms, avg %.1f ms, p95 %.1f ms, max %.1f ms",
+                    AuditMetrics.toMillis(resolutionNanos.get(0)),
+                    AuditMetrics.toMillis(AuditMetrics.average(resolutionNanos)),
+                    AuditMetrics.toMillis(AuditMetrics.percentile(resolutionNanos, 95)),
+                    AuditMetrics.toMillis(resolutionNanos.get(resolutionNanos.size() - 1))));
+        }
+        log.debug(" - artifacts      : " + counters);
+        log.debug(" - regex matches  : " + auditMetrics.getRegexEvaluations() + " evaluated");
+    }
+
+    /**
+     * Prints, at debug level, the artifacts which took the longest to resolve,
+     * along with the depth of their parent chain, to spot the resolution hotspots.
+     *
+     * @param auditMetrics The metrics of the audit.
+     * @param count        The number of artifacts to list.
+     */
+    public void logSlowestArtifacts(final AuditMetrics auditMetrics, final int count) {
+        List<AuditMetrics.ArtifactResolution> slowest = auditMetrics.getSlowestResolutions(count);
+        if (slowest.isEmpty()) {
+            return;
+        }
+        log.debug("");
+        log.debug("--------------< LicenseScan: Slowest Artifacts >--------------");
+        for (AuditMetrics.ArtifactResolution resolution : slowest) {
+            String parentDepth = resolution.getParentDepth() < 0
+                    ? "cached"
+                    : "parent depth " + resolution.getParentDepth();
+            log.debug(String.format(" - %10.1f ms (%s) %s", AuditMetrics.toMillis(resolution.getNanos()),
+                    parentDepth, resolution.getGavLabel()));
+        }
+    }
+
     private void logDeps(final Map<String, List<String>> licensesMap,
                          final String sectionTitle,
                          final boolean printLicenses) {
@@ -1,21 +1,44 @@
 package com.csoft.services;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.License;
+import org.apache.maven.model.building.ModelProblem;
 import org.apache.maven.model.building.ModelBuildingRequest;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+
+import com.csoft.utils.ArtifactKey;
+import com.csoft.utils.ArtifactUtils;
+import com.csoft.utils.DaemonThreadFactory;
 
 /**
  * Class that implements processing of a Maven project dependency metadata and
@@ -23,12 +46,123 @@ import org.apache.maven.project.ProjectBuildingRequest;
  */
 public class DependencyAnalyzer {
 
+    // marks the artifacts left unresolved because the resolution was stopped early
+    private static final List<String> NOT_RESOLVED = Collections.unmodifiableList(new ArrayList<String>());
+
     private final MavenSession mavenSession;
     private final ProjectBuilder projectBuilder;
+    private final int threads;
+    private LicenseCache licenseCache;
+    private PomLicenseReader pomLicenseReader;
+    // reads the parent depths when the lightweight resolution is off, keeping its parent cache
+    private PomLicenseReader parentDepthReader;
+    private ReactorLicenseCache reactorLicenseCache;
+    private AuditMetrics auditMetrics = new AuditMetrics();
+    private LicensePool licensePool = new LicensePool();
+    private UnresolvedPolicy unresolvedPolicy = UnresolvedPolicy.FAIL_FAST;
+    private boolean batchResolution;
+    private JarLicenseDetector jarLicenseDetector;
 
     public DependencyAnalyzer(final MavenSession mavenSession, final ProjectBuilder projectBuilder) {
+        this(mavenSession, projectBuilder, 1);
+    }
+
+    /**
+     * @param threads Number of worker threads used to build the artifacts metadata;
+     *                values lower or equal than 1 keep the resolution sequential.
+     */
+    public DependencyAnalyzer(final MavenSession mavenSession,
+                              final ProjectBuilder projectBuilder,
+                              final int threads) {
         this.mavenSession = mavenSession;
         this.projectBuilder = projectBuilder;
+        this.threads = threads;
+    }
+
+    /**
+     * Enables a persistent {@link LicenseCache}, consulted before building the
+     * metadata of an artifact and filled with every newly resolved artifact.
+     *
+     * @param licenseCache The cache; null disables caching.
+     */
+    public void setLicenseCache(final LicenseCache licenseCache) {
+        this.licenseCache = licenseCache;
+    }
+
+    /**
+     * Enables the lightweight resolution of the licenses, reading the raw POM
+     * files of the local repository. Artifacts whose POM cannot be handled by
+     * the {@link PomLicenseReader} are still built with the {@link ProjectBuilder}.
+     *
+     * @param pomLicenseReader The reader; null disables the lightweight resolution.
+     */
+    public void setPomLicenseReader(final PomLicenseReader pomLicenseReader) {
+        this.pomLicenseReader = pomLicenseReader;
+    }
+
+    /**
+     * Enables a {@link ReactorLicenseCache}, shared with the other modules of
+     * the reactor, so that each artifact is resolved once per Maven invocation.
+     *
+     * @param reactorLicenseCache The cache; null disables sharing.
+     */
+    public void setReactorLicenseCache(final ReactorLicenseCache reactorLicenseCache) {
+        this.reactorLicenseCache = reactorLicenseCache;
+    }
+
+    /**
+     * Sets the {@link AuditMetrics} collecting the resolution timings and counters.
+     *
+     * @param auditMetrics The metrics of the current audit.
+     */
+    public void setAuditMetrics(final AuditMetrics auditMetrics) {
+        this.auditMetrics = auditMetrics;
+    }
+
+    /**
+     * Sets the {@link LicensePool} interning the resolved licenses, so that
+     * several analyzers can share the same license instances.
+     *
+     * @param licensePool The pool of the current audit.
+     */
+    public void setLicensePool(final LicensePool licensePool) {
+        this.licensePool = licensePool;
+    }
+
+    /**
+     * Enables the batch resolution: the artifacts which need a full model
+     * build and have their POM in the local repository are all built with a
+     * single {@link ProjectBuilder} call, which shares one model cache across
+     * them, so that common parent POMs are read and interpolated only once.
+     * Artifacts the batch could not build are still built one by one.
+     *
+     * @param batchResolution Whether to build the artifacts in a single batch.
+     */
+    public void setBatchResolution(final boolean batchResolution) {
+        this.batchResolution = batchResolution;
+    }
+
+    /**
+     * Enables the detection of the licenses shipped inside the jars, for the
+     * artifacts whose metadata declares no license. The detected licenses are
+     * not stored in the {@link LicenseCache}, which only holds POM licenses.
+     *
+     * @param jarLicenseDetector The detector; null disables the detection.
+     */
+    public void setJarLicenseDetector(final JarLicenseDetector jarLicenseDetector) {
+        this.jarLicenseDetector = jarLicenseDetector;
+    }
+
+    /**
+     * Sets the {@link UnresolvedPolicy} applied to the artifacts whose metadata
+     * cannot be built. With any policy other than {@link UnresolvedPolicy#FAIL_FAST},
+     * the resolution goes on past the failures, which are collected in the
+     * {@link ResolutionResult}.
+     *
+     * @param unresolvedPolicy The policy.
+     */
+    public void setUnresolvedPolicy(final UnresolvedPolicy unresolvedPolicy) {
+        this.unresolvedPolicy = unresolvedPolicy;
     }
 
     /**
@@ -38,34 +172,569 @@ public class DependencyAnalyzer {
      * <p>
      * In a Maven project, an Artifact can have 0, 1 or more licenses associated.
      * This function allows to extract all the info in a handy Map of Strings.
+     * Artifacts which cannot be resolved are left out of the map, unless the
+     * policy is {@link UnresolvedPolicy#FAIL_FAST}.
      *
      * @param dependencies Set of {@link Artifact} objects
      * @return Map of type {key: artifactGAVLabel, value: listOf[artifact licenses]}
      */
     public Map<String, List<String>> analyze(final Set<Artifact> dependencies) {
+        Map<ArtifactKey, Artifact> artifacts = keyed(dependencies, Collections.emptyMap());
+        List<List<String>> licenses = resolveAll(artifacts, new ConcurrentHashMap<>(), null);
+        Map<String, List<String>> licenseMap = new LinkedHashMap<>();
+        int i = 0;
+        for (ArtifactKey key : artifacts.keySet()) {
+            List<String> artifactLicenses = licenses.get(i++);
+            if (artifactLicenses != null) {
+                licenseMap.put(key.getLabel(), artifactLicenses);
+            }
+        }
+        return licenseMap;
+    }
+
+    /**
+     * Resolves the licenses of the Direct and Transitive dependencies of a
+     * Maven project in a single pass, building the metadata of each
+     * {@link Artifact} exactly once.
+     * <p>
+     * When more than one thread is configured, artifacts are built concurrently;
+     * the returned result keeps the input iteration order regardless of the
+     * order in which the builds complete.
+     *
+     * @param directDependencies     Direct {@link Artifact} dependencies
+     * @param transitiveDependencies Transitive {@link Artifact} dependencies
+     * @return Immutable {@link ResolutionResult} holding the licenses of every artifact.
+     */
+    public ResolutionResult resolve(final Collection<Artifact> directDependencies,
+                                    final Collection<Artifact> transitiveDependencies) {
+        return resolve(directDependencies, transitiveDependencies, null);
+    }
+
+    /**
+     * Resolves the licenses of the Direct and Transitive dependencies of a
+     * Maven project like {@link #resolve(Collection, Collection)}, checking
+     * each artifact against a stop condition as soon as its licenses are known.
+     * <p>
+     * Direct dependencies are resolved first. Artifacts are checked in the
+     * order their resolution completes, in the calling thread; the first one
+     * meeting the condition cancels the resolution of the others, which are
+     * left out of the returned result. When the jar license detection is
+     * enabled, the jar of an artifact is read right after its metadata, so
+     * that the licenses found inside it are checked too.
+     * The batch resolution is skipped, as it would build every artifact upfront.
+     *
+     * @param directDependencies     Direct {@link Artifact} dependencies
+     * @param transitiveDependencies Transitive {@link Artifact} dependencies
+     * @param stopCondition          Condition on the GAV label and the licenses of an
+     *                               artifact stopping the resolution; null resolves everything.
+     * @return Immutable {@link ResolutionResult} holding the licenses of the resolved artifacts.
+     */
+    public ResolutionResult resolve(final Collection<Artifact> directDependencies,
+                                    final Collection<Artifact> transitiveDependencies,
+                                    final BiPredicate<String, List<String>> stopCondition) {
+        Map<ArtifactKey, Artifact> directArtifacts = keyed(directDependencies, Collections.emptyMap());
+        Map<ArtifactKey, Artifact> transitiveArtifacts = keyed(transitiveDependencies, directArtifacts);
+
+        Map<ArtifactKey, Artifact> artifacts = new LinkedHashMap<>(directArtifacts);
+        artifacts.putAll(transitiveArtifacts);
+        Map<ArtifactKey, String> failures = new ConcurrentHashMap<>();
+        List<List<String>> licenses = resolveAll(artifacts, failures, stopCondition);
+
+        Map<String, List<String>> directMap = new LinkedHashMap<>();
+        Map<String, List<String>> transitiveMap = new LinkedHashMap<>();
+        Map<String, String> unresolvedMap = new LinkedHashMap<>();
+        int i = 0;
+        for (ArtifactKey key : artifacts.keySet()) {
+            List<String> artifactLicenses = licenses.get(i++);
+            if (artifactLicenses == NOT_RESOLVED) {
+                continue;
+            }
+            if (artifactLicenses == null) {
+                unresolvedMap.put(key.getLabel(), failures.get(key));
+            } else if (directArtifacts.containsKey(key)) {
+                directMap.put(key.getLabel(), artifactLicenses);
+            } else {
+                transitiveMap.put(key.getLabel(), artifactLicenses);
+            }
+        }
+        return new ResolutionResult(directMap, transitiveMap, unresolvedMap);
+    }
+
+    /**
+     * Keys the input artifacts, skipping the ones already in the excluded map.
+     * The last artifact with a given key wins, as with GAV label keys.
+     */
+    private static Map<ArtifactKey, Artifact> keyed(final Collection<Artifact> dependencies,
+                                                    final Map<ArtifactKey, Artifact> excluded) {
+        Map<ArtifactKey, Artifact> artifacts = new LinkedHashMap<>();
+        for (Artifact artifact : dependencies) {
+            ArtifactKey key = ArtifactKey.of(artifact);
+            if (!excluded.containsKey(key)) {
+                artifacts.put(key, artifact);
+            }
+        }
+        return artifacts;
+    }
+
+    /**
+     * Resolves the licenses of the input artifacts, returning them in the
+     * same order as the input map. Artifacts which cannot be resolved get null
+     * licenses, with the reason of the failure recorded in the failures map.
+     */
+    private List<List<String>> resolveAll(final Map<ArtifactKey, Artifact> artifacts,
+                                          final Map<ArtifactKey, String> failures,
+                                          final BiPredicate<String, List<String>> stopCondition) {
+        if (stopCondition != null) {
+            // the jars are read along with the resolution, so that their licenses are checked too
+            return resolveUntil(artifacts, failures, stopCondition);
+        }
+        List<List<String>> licenses = resolveMetadata(artifacts, failures);
+        if (jarLicenseDetector != null) {
+            detectJarLicenses(artifacts, licenses);
+        }
+        return licenses;
+    }
+
+    private List<List<String>> resolveMetadata(final Map<ArtifactKey, Artifact> artifacts,
+                                               final Map<ArtifactKey, String> failures) {
+        int poolSize = Math.min(threads, artifacts.size());
+        ExecutorService executor = poolSize > 1
+                ? Executors.newFixedThreadPool(poolSize, new DaemonThreadFactory("licensescan-resolver"))
+                : null;
+        try {
+            Prefetch prefetch = batchResolution ? prefetch(artifacts, executor) : new Prefetch();
+            List<Callable<List<String>>> tasks = new ArrayList<>(artifacts.size());
+            ProjectBuildingRequest sharedRequest = executor == null ? newBuildingRequest() : null;
+            for (Map.Entry<ArtifactKey, Artifact> artifact : artifacts.entrySet()) {
+                // concurrent tasks work on their own copy of the building request, as the request is mutable
+                tasks.add(() -> resolveLicenses(artifact.getKey(), artifact.getValue(),
+                        sharedRequest != null ? sharedRequest : newBuildingRequest(), prefetch, failures));
+            }
+            return invokeAll(executor, tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving dependency licenses. Giving up...", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Runs the input tasks, on the executor when there is one, returning
+     * their results in the input order.
+     */
+    private static <T> List<T> invokeAll(final ExecutorService executor,
+                                         final List<Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (executor == null) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new ExecutionException(e);
+                }
+            }
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * Resolves the licenses of the input artifacts until one of them meets the
+     * stop condition. Artifacts whose resolution was cancelled get the
+     * {@link #NOT_RESOLVED} licenses.
+     */
+    private List<List<String>> resolveUntil(final Map<ArtifactKey, Artifact> artifacts,
+                                            final Map<ArtifactKey, String> failures,
+                                            final BiPredicate<String, List<String>> stopCondition) {
+        Prefetch prefetch = new Prefetch();
+        List<ArtifactKey> keys = new ArrayList<>(artifacts.keySet());
+        List<List<String>> licenses = new ArrayList<>(Collections.nCopies(keys.size(), NOT_RESOLVED));
+        int poolSize = Math.min(threads, artifacts.size());
+        if (poolSize <= 1) {
+            ProjectBuildingRequest buildingRequest = newBuildingRequest();
+            for (int i = 0; i < keys.size(); i++) {
+                ArtifactKey key = keys.get(i);
+                Artifact artifact = artifacts.get(key);
+                List<String> artifactLicenses = withJarLicenses(artifact,
+                        resolveLicenses(key, artifact, buildingRequest, prefetch, failures));
+                licenses.set(i, artifactLicenses);
+                if (meetsStopCondition(key, artifactLicenses, stopCondition)) {
+                    break;
+                }
+            }
+            return licenses;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new DaemonThreadFactory("licensescan-resolver"));
+        try {
+            // tasks are queued in the input order, Direct dependencies first
+            CompletionService<List<String>> completionService = new ExecutorCompletionService<>(executor);
+            Map<Future<List<String>>, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                ArtifactKey key = keys.get(i);
+                Callable<List<String>> task = () -> withJarLicenses(artifacts.get(key),
+                        resolveLicenses(key, artifacts.get(key), newBuildingRequest(), prefetch, failures));
+                indexes.put(completionService.submit(task), i);
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                Future<List<String>> future = completionService.take();
+                int index = indexes.get(future);
+                ArtifactKey key = keys.get(index);
+                licenses.set(index, future.get());
+                if (meetsStopCondition(key, licenses.get(index), stopCondition)) {
+                    break;
+                }
+            }
+            return licenses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving dependency licenses. Giving up...", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean meetsStopCondition(final ArtifactKey key,
+                                              final List<String> licenses,
+                                              final BiPredicate<String, List<String>> stopCondition) {
+        return licenses != null && stopCondition.test(key.getLabel(), licenses);
+    }
+
+    /**
+     * Returns the licenses found inside the jar of an artifact whose metadata
+     * declares none, or the input licenses otherwise.
+     */
+    private List<String> withJarLicenses(final Artifact artifact, final List<String> licenses) {
+        if (jarLicenseDetector == null || licenses == null || !licenses.isEmpty() || artifact.getFile() == null) {
+            return licenses;
+        }
+        List<String> detected = jarLicenseDetector.detect(artifact.getFile());
+        if (detected.isEmpty()) {
+            return licenses;
+        }
+        auditMetrics.incrementJarLicenses();
+        return licensePool.intern(detected);
+    }
+
+    /**
+     * Replaces the empty licenses of the resolved artifacts with the licenses
+     * found inside their jars, if any. All the jars are handed to the
+     * {@link JarLicenseDetector} at once, so that they are opened concurrently.
+     */
+    private void detectJarLicenses(final Map<ArtifactKey, Artifact> artifacts,
+                                   final List<List<String>> licenses) {
+        Map<Integer, File> jarFiles = new LinkedHashMap<>();
+        int i = 0;
+        for (Artifact artifact : artifacts.values()) {
+            List<String> artifactLicenses = licenses.get(i);
+            if (artifactLicenses != null && artifactLicenses.isEmpty() && artifact.getFile() != null) {
+                jarFiles.put(i, artifact.getFile());
+            }
+            i++;
+        }
+        if (jarFiles.isEmpty()) {
+            return;
+        }
+        Map<File, List<String>> jarLicenses = jarLicenseDetector.detect(new LinkedHashSet<>(jarFiles.values()));
+        for (Map.Entry<Integer, File> jarFile : jarFiles.entrySet()) {
+            List<String> detected = jarLicenses.get(jarFile.getValue());
+            if (detected != null && !detected.isEmpty()) {
+                licenses.set(jarFile.getKey(), licensePool.intern(detected));
+                auditMetrics.incrementJarLicenses();
+            }
+        }
+    }
+
+    /**
+     * Builds in a single batch the artifacts which cannot be resolved from the
+     * caches or by the {@link PomLicenseReader}. The caches and the reader are
+     * checked on the executor, and the POMs read meanwhile are kept, so that
+     * they are not read twice. The time spent on each artifact, its share of
+     * the batch included, is added to its resolution time.
+     */
+    private Prefetch prefetch(final Map<ArtifactKey, Artifact> artifacts,
+                              final ExecutorService executor) throws InterruptedException, ExecutionException {
+        Prefetch prefetch = new Prefetch();
+        File localRepositoryDir = localRepositoryDir();
+        if (localRepositoryDir == null) {
+            return prefetch;
+        }
+        List<Callable<File>> probes = new ArrayList<>(artifacts.size());
+        for (Map.Entry<ArtifactKey, Artifact> entry : artifacts.entrySet()) {
+            probes.add(() -> probe(entry.getKey(), entry.getValue(), localRepositoryDir, prefetch));
+        }
+        List<File> probedPomFiles = invokeAll(executor, probes);
+
+        // several artifacts (e.g. the same GAV in different scopes) can share a POM
+        Map<File, List<ArtifactKey>> pomFiles = new LinkedHashMap<>();
+        int i = 0;
+        for (ArtifactKey key : artifacts.keySet()) {
+            File pomFile = probedPomFiles.get(i++);
+            if (pomFile != null) {
+                pomFiles.computeIfAbsent(pomFile, file -> new ArrayList<>()).add(key);
+            }
+        }
+        if (pomFiles.size() < 2) {
+            // nothing to share between the builds
+            return prefetch;
+        }
+
+        long start = System.nanoTime();
+        List<ProjectBuildingResult> results;
+        try {
+            results = projectBuilder.build(new ArrayList<>(pomFiles.keySet()), false, newBuildingRequest());
+        } catch (ProjectBuildingException e) {
+            // the projects built successfully are still usable, the others are built one by one later
+            results = e.getResults();
+        }
+        long share = (System.nanoTime() - start) / pomFiles.size();
+        for (List<ArtifactKey> keys : pomFiles.values()) {
+            for (ArtifactKey key : keys) {
+                prefetch.addNanos(key, share);
+            }
+        }
+        if (results == null) {
+            return prefetch;
+        }
+        for (ProjectBuildingResult result : results) {
+            if (result == null || result.getProject() == null || result.getPomFile() == null || hasErrors(result)) {
+                continue;
+            }
+            List<ArtifactKey> keys = pomFiles.get(result.getPomFile().getAbsoluteFile());
+            if (keys != null) {
+                List<String> licenses = licenseNames(result.getProject());
+                for (ArtifactKey key : keys) {
+                    prefetch.builtLicenses.put(key, licenses);
+                }
+            }
+        }
+        return prefetch;
+    }
+
+    /**
+     * Checks whether an artifact can be resolved without a full model build,
+     * keeping the POM licenses read meanwhile.
+     *
+     * @return The POM file of the artifact when it needs a full model build, null otherwise.
+     */
+    private File probe(final ArtifactKey key,
+                       final Artifact artifact,
+                       final File localRepositoryDir,
+                       final Prefetch prefetch) {
+        long start = System.nanoTime();
+        try {
+            if (reactorLicenseCache != null && reactorLicenseCache.contains(artifact)) {
+                return null;
+            }
+            File pomFile = ArtifactUtils.getLocalPomFile(localRepositoryDir, artifact).getAbsoluteFile();
+            if (!pomFile.isFile() || licenseCache != null && licenseCache.get(artifact, pomFile) != null) {
+                return null;
+            }
+            PomLicenseReader.PomLicenses pomLicenses = pomLicenseReader != null ? pomLicenseReader.read(artifact) : null;
+            if (pomLicenses != null) {
+                prefetch.pomLicenses.put(key, pomLicenses);
+                return null;
+            }
+            return pomFile;
+        } finally {
+            prefetch.addNanos(key, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean hasErrors(final ProjectBuildingResult result) {
+        if (result.getProblems() == null) {
+            return false;
+        }
+        for (ModelProblem problem : result.getProblems()) {
+            if (problem.getSeverity() != ModelProblem.Severity.WARNING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ProjectBuildingRequest newBuildingRequest() {
         ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(
                 mavenSession.getProjectBuildingRequest());
         buildingRequest.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+        return buildingRequest;
+    }
+
+    private List<String> resolveLicenses(final ArtifactKey key,
+                                         final Artifact artifact,
+                                         final ProjectBuildingRequest buildingRequest,
+                                         final Prefetch prefetch,
+                                         final Map<ArtifactKey, String> failures) {
+        long start = System.nanoTime();
+        // stays -1 when the licenses come from a cache and no POM is walked
+        AtomicInteger parentDepth = new AtomicInteger(-1);
+        List<String> licenses;
+        try {
+            if (reactorLicenseCache != null) {
+                AtomicBoolean loaded = new AtomicBoolean();
+                licenses = reactorLicenseCache.get(artifact, () -> {
+                    loaded.set(true);
+                    return loadLicenses(key, artifact, buildingRequest, prefetch, parentDepth);
+                });
+                if (!loaded.get()) {
+                    // another module resolved the artifact
+                    auditMetrics.incrementReactorCacheHits();
+                }
+            } else {
+                licenses = loadLicenses(key, artifact, buildingRequest, prefetch, parentDepth);
+            }
+        } catch (UnresolvedArtifactException e) {
+            if (unresolvedPolicy == UnresolvedPolicy.FAIL_FAST) {
+                throw e;
+            }
+            failures.put(key, e.getReason());
+            parentDepth.set(readParentDepth(artifact));
+            auditMetrics.incrementUnresolved();
+            licenses = null;
+        }
+        // the time spent on the artifact before the resolution counts too
+        auditMetrics.recordArtifactResolution(key.getLabel(), start - prefetch.getNanos(key), parentDepth.get());
+        return licenses;
+    }
+
+    private List<String> loadLicenses(final ArtifactKey key,
+                                      final Artifact artifact,
+                                      final ProjectBuildingRequest buildingRequest,
+                                      final Prefetch prefetch,
+                                      final AtomicInteger parentDepth) {
+        File pomFile = licenseCache != null ? localPomFile(artifact) : null;
+        if (pomFile != null) {
+            List<String> cachedLicenses = licenseCache.get(artifact, pomFile);
+            if (cachedLicenses != null) {
+                auditMetrics.incrementLicenseCacheHits();
+                return licensePool.intern(cachedLicenses);
+            }
+        }
+        // the batch only builds the artifacts the reader could not handle
+        PomLicenseReader.PomLicenses pomLicenses = prefetch.pomLicenses.get(key);
+        if (pomLicenses == null && pomLicenseReader != null && !prefetch.builtLicenses.containsKey(key)) {
+            pomLicenses = pomLicenseReader.read(artifact);
+        }
+        List<String> licenses;
+        if (pomLicenses != null) {
+            licenses = pomLicenses.getLicenses();
+            parentDepth.set(pomLicenses.getParentDepth());
+            auditMetrics.incrementPomsRead();
+        } else {
+            licenses = prefetch.builtLicenses.get(key);
+            if (licenses == null) {
+                licenses = buildLicenses(artifact, buildingRequest);
+            }
+            parentDepth.set(readParentDepth(artifact));
+            auditMetrics.incrementProjectsBuilt();
+        }
+        if (pomFile != null) {
+            licenseCache.put(artifact, pomFile, licenses);
+        }
+        return licensePool.intern(licenses);
+    }
 
-        Map<String, List<String>> licenseMap = new HashMap<>();
+    private List<String> buildLicenses(final Artifact artifact,
+                                       final ProjectBuildingRequest buildingRequest) {
         try {
-            for (Artifact artifact : dependencies) {
-                String gavLabel = String.format("%s:%s:%s:%s",
-                        artifact.getGroupId(),
-                        artifact.getArtifactId(),
-                        artifact.getVersion(),
-                        artifact.getScope());
-                buildingRequest.setProject(null);
-                MavenProject mavenProject = projectBuilder.build(artifact, buildingRequest).getProject();
-                List<String> licenseStringList = mavenProject.getLicenses().stream()
-                        .map(License::getName)
-                        .collect(Collectors.toList());
-                licenseMap.put(gavLabel, licenseStringList);
-            }
-            return licenseMap;
+            buildingRequest.setProject(null);
+            return licenseNames(projectBuilder.build(artifact, buildingRequest).getProject());
         } catch (ProjectBuildingException e) {
-            String projectId = e.getProjectId();
-            throw new RuntimeException("Error while building project " + projectId + ". Giving up...", e);
+            throw new UnresolvedArtifactException(e);
+        }
+    }
+
+    private static List<String> licenseNames(final MavenProject mavenProject) {
+        return Collections.unmodifiableList(mavenProject.getLicenses().stream()
+                .map(License::getName)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Reads the depth of the parent chain the {@link ProjectBuilder} had to
+     * build for an artifact, from the raw POM files of the local repository.
+     */
+    private int readParentDepth(final Artifact artifact) {
+        PomLicenseReader reader = pomLicenseReader != null ? pomLicenseReader : parentDepthReader();
+        return reader != null ? reader.readParentDepth(artifact) : -1;
+    }
+
+    private synchronized PomLicenseReader parentDepthReader() {
+        if (parentDepthReader == null) {
+            File localRepositoryDir = localRepositoryDir();
+            if (localRepositoryDir != null) {
+                parentDepthReader = new PomLicenseReader(localRepositoryDir);
+            }
+        }
+        return parentDepthReader;
+    }
+
+    private File localPomFile(final Artifact artifact) {
+        File localRepositoryDir = localRepositoryDir();
+        return localRepositoryDir != null ? ArtifactUtils.getLocalPomFile(localRepositoryDir, artifact) : null;
+    }
+
+    private File localRepositoryDir() {
+        ArtifactRepository localRepository = mavenSession.getLocalRepository();
+        if (localRepository == null || localRepository.getBasedir() == null) {
+            return null;
+        }
+        return new File(localRepository.getBasedir());
+    }
+
+    /**
+     * Internal class holding the outcome of the batch resolution, shared by
+     * the resolver threads.
+     */
+    private static class Prefetch {
+        private final Map<ArtifactKey, List<String>> builtLicenses = new ConcurrentHashMap<>();
+        private final Map<ArtifactKey, PomLicenseReader.PomLicenses> pomLicenses = new ConcurrentHashMap<>();
+        private final Map<ArtifactKey, Long> nanos = new ConcurrentHashMap<>();
+
+        void addNanos(final ArtifactKey key, final long elapsed) {
+            nanos.merge(key, elapsed, Long::sum);
+        }
+
+        long getNanos(final ArtifactKey key) {
+            return nanos.getOrDefault(key, 0L);
+        }
+    }
+
+    /**
+     * Internal exception raised when the metadata of an artifact cannot be built.
+     */
+    private static class UnresolvedArtifactException extends RuntimeException {
+
+        UnresolvedArtifactException(final ProjectBuildingException cause) {
+            super("Error while building project " + cause.getProjectId() + ". Giving up...", cause);
+        }
+
+        String getReason() {
+            return getCause().getMessage();
         }
     }
 
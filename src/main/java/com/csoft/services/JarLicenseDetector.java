@@ -0,0 +1,318 @@
+package com.csoft.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.csoft.utils.DaemonThreadFactory;
+
+/**
+ * Class that implements the detection of the licenses shipped inside a jar,
+ * used as a fallback for the artifacts whose POM declares no license.
+ * <p>
+ * Jars are opened with {@link ZipFile}, which reads only the central directory
+ * of the archive: the data of an entry is read only for the manifest and for
+ * the {@code META-INF/LICENSE*} files, never for the classes. The
+ * {@code Bundle-License} manifest header wins over the license files; the text
+ * of a license file is mapped to a well-known license name when possible, or
+ * to its title line otherwise.
+ * <p>
+ * License texts mention other licenses in their body (e.g. the GPL points to
+ * the LGPL, the MPL lists its secondary licenses), so a text is identified on
+ * its header lines, or on the phrase opening one of its first paragraphs,
+ * never on keywords found anywhere in it.
+ */
+public class JarLicenseDetector {
+
+    private static final String LICENSE_ENTRY_PREFIX = "META-INF/LICENSE";
+    // license files usually open with their title: no need to read a long text whole
+    private static final int MAX_TEXT_BYTES = 16 * 1024;
+    private static final int MAX_TITLE_LENGTH = 120;
+    // the title and the version of a license fit in its first lines
+    private static final int HEADER_LINES = 3;
+    // the permission grant follows at most a title and a copyright notice
+    private static final int LEADING_PARAGRAPHS = 4;
+
+    // checked in order on the header lines: more specific titles come before the titles they contain
+    private static final List<TextRule> TITLE_RULES = Arrays.asList(
+            new TextRule("Apache License, Version 2.0", "apache license", "version 2.0"),
+            new TextRule("GNU Lesser General Public License, Version 2.1", "gnu lesser general public license", "version 2.1"),
+            new TextRule("GNU Lesser General Public License, Version 3", "gnu lesser general public license", "version 3"),
+            new TextRule("GNU Affero General Public License, Version 3", "gnu affero general public license", "version 3"),
+            new TextRule("GNU General Public License, version 2 with the GNU Classpath Exception",
+                    "gnu general public license", "version 2", "classpath exception"),
+            new TextRule("GNU General Public License, Version 2", "gnu general public license", "version 2"),
+            new TextRule("GNU General Public License, Version 3", "gnu general public license", "version 3"),
+            new TextRule("Eclipse Public License 2.0", "eclipse public license", "2.0"),
+            new TextRule("Eclipse Public License 1.0", "eclipse public license", "1.0"),
+            new TextRule("Mozilla Public License 2.0", "mozilla public license", "2.0"),
+            new TextRule("Common Development and Distribution License 1.1", "common development and distribution license", "1.1"),
+            new TextRule("Common Development and Distribution License 1.0", "common development and distribution license", "1.0"));
+    // checked in order on the start of the leading paragraphs, for the licenses without a title
+    private static final List<TextRule> PARAGRAPH_RULES = Arrays.asList(
+            new TextRule("MIT License", "permission is hereby granted, free of charge"),
+            new TextRule("BSD License", "redistribution and use in source and binary forms"));
+
+    private final int threads;
+
+    /**
+     * @param threads Number of worker threads used to open the jars; values
+     *                lower or equal than 1 keep the detection sequential.
+     */
+    public JarLicenseDetector(final int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Detects the licenses of several jars, opening them concurrently.
+     *
+     * @param jarFiles The jar files.
+     * @return Map of type {key: jar file, value: listOf[detected licenses]}, in input order.
+     */
+    public Map<File, List<String>> detect(final Collection<File> jarFiles) {
+        Map<File, List<String>> licenses = new LinkedHashMap<>();
+        int poolSize = Math.min(threads, jarFiles.size());
+        if (poolSize <= 1) {
+            for (File jarFile : jarFiles) {
+                licenses.put(jarFile, detect(jarFile));
+            }
+            return licenses;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new DaemonThreadFactory("licensescan-jar"));
+        try {
+            Map<File, Future<List<String>>> futures = new LinkedHashMap<>();
+            for (File jarFile : jarFiles) {
+                futures.put(jarFile, executor.submit(() -> detect(jarFile)));
+            }
+            for (Map.Entry<File, Future<List<String>>> future : futures.entrySet()) {
+                licenses.put(future.getKey(), future.getValue().get());
+            }
+            return licenses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while detecting jar licenses. Giving up...", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Detects the licenses of a single jar.
+     *
+     * @param jarFile The jar file.
+     * @return List of licenses, empty when none is found or the file is not a readable archive.
+     */
+    public List<String> detect(final File jarFile) {
+        if (jarFile == null || !jarFile.isFile()) {
+            return Collections.emptyList();
+        }
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            List<String> bundleLicenses = readBundleLicenses(zipFile);
+            if (!bundleLicenses.isEmpty()) {
+                return bundleLicenses;
+            }
+            List<String> licenses = new ArrayList<>();
+            for (ZipEntry entry : licenseEntries(zipFile)) {
+                String license = identify(readText(zipFile, entry));
+                if (license != null && !licenses.contains(license)) {
+                    licenses.add(license);
+                }
+            }
+            return licenses;
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static List<String> readBundleLicenses(final ZipFile zipFile) throws IOException {
+        ZipEntry manifestEntry = zipFile.getEntry(JarFile.MANIFEST_NAME);
+        if (manifestEntry == null) {
+            return Collections.emptyList();
+        }
+        Manifest manifest;
+        try (InputStream in = zipFile.getInputStream(manifestEntry)) {
+            manifest = new Manifest(in);
+        }
+        String header = manifest.getMainAttributes().getValue("Bundle-License");
+        return header != null ? parseBundleLicense(header) : Collections.<String>emptyList();
+    }
+
+    /**
+     * Parses an OSGi {@code Bundle-License} header: a comma-separated list of
+     * clauses, each made of a license name followed by optional
+     * {@code ;attribute=value} parts. Commas within quotes do not split.
+     */
+    static List<String> parseBundleLicense(final String header) {
+        List<String> licenses = new ArrayList<>();
+        StringBuilder clause = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i <= header.length(); i++) {
+            char c = i < header.length() ? header.charAt(i) : ',';
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            if (c == ',' && !quoted) {
+                String name = clause.toString();
+                int attributes = name.indexOf(';');
+                name = (attributes >= 0 ? name.substring(0, attributes) : name).replace("\"", "").trim();
+                if (!name.isEmpty() && !"<<EXTERNAL>>".equals(name)) {
+                    licenses.add(name);
+                }
+                clause.setLength(0);
+            } else {
+                clause.append(c);
+            }
+        }
+        return licenses;
+    }
+
+    private static List<ZipEntry> licenseEntries(final ZipFile zipFile) {
+        // only the central directory is enumerated here, no entry data is read
+        List<ZipEntry> entries = new ArrayList<>();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            String name = entry.getName();
+            if (!entry.isDirectory()
+                    && name.regionMatches(true, 0, LICENSE_ENTRY_PREFIX, 0, LICENSE_ENTRY_PREFIX.length())
+                    && name.indexOf('/', LICENSE_ENTRY_PREFIX.length()) < 0) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static String readText(final ZipFile zipFile, final ZipEntry entry) throws IOException {
+        byte[] buffer = new byte[MAX_TEXT_BYTES];
+        int length = 0;
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            int read;
+            while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+        }
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps the text of a license file to a license name: a well-known license
+     * when its header or the opening of one of its first paragraphs matches
+     * one, otherwise the first line when it mentions a license.
+     * <p>
+     * The header is the first paragraph, up to {@link #HEADER_LINES} lines,
+     * followed by the second one when both are made of a single line, as with
+     * a title followed by its version.
+     *
+     * @param text The license text.
+     * @return The license name, or null when the text does not look like a license.
+     */
+    static String identify(final String text) {
+        List<List<String>> paragraphs = leadingParagraphs(text);
+        if (paragraphs.isEmpty()) {
+            return null;
+        }
+        List<String> headerLines = new ArrayList<>(paragraphs.get(0));
+        if (headerLines.size() == 1 && paragraphs.size() > 1 && paragraphs.get(1).size() == 1) {
+            headerLines.addAll(paragraphs.get(1));
+        }
+        String header = fold(String.join(" ", headerLines.subList(0, Math.min(HEADER_LINES, headerLines.size()))));
+        for (TextRule rule : TITLE_RULES) {
+            if (rule.matches(header)) {
+                return rule.license;
+            }
+        }
+        for (List<String> paragraph : paragraphs) {
+            String opening = fold(String.join(" ", paragraph));
+            for (TextRule rule : PARAGRAPH_RULES) {
+                if (rule.opens(opening)) {
+                    return rule.license;
+                }
+            }
+        }
+        String title = paragraphs.get(0).get(0);
+        return title.toLowerCase(Locale.ROOT).contains("license") && title.length() <= MAX_TITLE_LENGTH
+                ? title
+                : null;
+    }
+
+    /**
+     * Splits the start of a text into its first {@link #LEADING_PARAGRAPHS}
+     * paragraphs, each one as its list of trimmed lines.
+     */
+    private static List<List<String>> leadingParagraphs(final String text) {
+        List<List<String>> paragraphs = new ArrayList<>();
+        List<String> paragraph = new ArrayList<>();
+        for (String line : text.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                paragraph.add(trimmed);
+                continue;
+            }
+            if (!paragraph.isEmpty()) {
+                paragraphs.add(paragraph);
+                if (paragraphs.size() == LEADING_PARAGRAPHS) {
+                    return paragraphs;
+                }
+                paragraph = new ArrayList<>();
+            }
+        }
+        if (!paragraph.isEmpty()) {
+            paragraphs.add(paragraph);
+        }
+        return paragraphs;
+    }
+
+    private static String fold(final String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Internal class mapping the keywords of a license text to its name.
+     */
+    private static class TextRule {
+        private final String license;
+        private final String[] keywords;
+
+        TextRule(final String license, final String... keywords) {
+            this.license = license;
+            this.keywords = keywords;
+        }
+
+        boolean matches(final String foldedText) {
+            for (String keyword : keywords) {
+                if (!foldedText.contains(keyword)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean opens(final String foldedParagraph) {
+            return foldedParagraph.startsWith(keywords[0]);
+        }
+    }
+}
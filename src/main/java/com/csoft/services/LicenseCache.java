@@ -0,0 +1,187 @@
+package com.csoft.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Class that implements a persistent, on-disk cache of the licenses resolved
+ * for each artifact, so that following executions of the plugin can skip
+ * building the metadata of artifacts that were already analyzed.
+ * <p>
+ * Entries are keyed by the artifact GAV and validated against the size and
+ * last modification time of the POM file in the local repository: whenever
+ * the POM changes, the entry is considered stale. SNAPSHOT artifacts are never
+ * cached, as their metadata can change at any time.
+ */
+public class LicenseCache {
+
+    public static final String CACHE_FILE_NAME = "license-cache.json";
+    private static final String LOCK_FILE_NAME = CACHE_FILE_NAME + ".lock";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    // file locks are held by the whole JVM: the saves of the same JVM are serialized apart
+    private static final Object SAVE_LOCK = new Object();
+
+    private final Path cacheFile;
+    private final Map<String, Entry> entries;
+    private volatile boolean dirty;
+
+    public LicenseCache(final Path cacheFile) {
+        this(cacheFile, Collections.<String, Entry>emptyMap());
+    }
+
+    private LicenseCache(final Path cacheFile, final Map<String, Entry> entries) {
+        this.cacheFile = cacheFile;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * Loads the cache stored in the input directory. If no cache was stored
+     * yet, an empty cache is returned.
+     *
+     * @param cacheDirectory Directory hosting the cache file.
+     * @return the loaded {@link LicenseCache}.
+     * @throws IOException When the cache file exists but cannot be read.
+     */
+    public static LicenseCache load(final Path cacheDirectory) throws IOException {
+        Path cacheFile = cacheDirectory.resolve(CACHE_FILE_NAME);
+        return new LicenseCache(cacheFile, readEntries(cacheFile));
+    }
+
+    /**
+     * Returns the cached licenses of an artifact, or null when the artifact is
+     * not cached, its cached entry is stale, or the artifact is a SNAPSHOT.
+     *
+     * @param artifact The artifact to look up.
+     * @param pomFile  The POM file of the artifact in the local repository.
+     * @return List of licenses, or null.
+     */
+    public List<String> get(final Artifact artifact, final File pomFile) {
+        if (!isCacheable(artifact, pomFile)) {
+            return null;
+        }
+        Entry entry = entries.get(key(artifact));
+        if (entry == null || !stampOf(pomFile).equals(entry.pomStamp)) {
+            return null;
+        }
+        return Collections.unmodifiableList(entry.licenses);
+    }
+
+    /**
+     * Records the licenses of an artifact. SNAPSHOT artifacts and artifacts
+     * without a POM in the local repository are ignored.
+     *
+     * @param artifact The resolved artifact.
+     * @param pomFile  The POM file of the artifact in the local repository.
+     * @param licenses The licenses resolved for the artifact.
+     */
+    public void put(final Artifact artifact, final File pomFile, final List<String> licenses) {
+        if (isCacheable(artifact, pomFile)) {
+            entries.put(key(artifact), new Entry(stampOf(pomFile), new ArrayList<>(licenses)));
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the cache back to disk, if any entry was added. Entries written
+     * in the meantime by concurrent builds sharing the same cache are kept:
+     * the cache file is read, merged and replaced under an exclusive lock of
+     * a lock file next to it, held by the builds of all the JVMs sharing the
+     * cache directory.
+     *
+     * @throws IOException When the cache file cannot be written.
+     */
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        Files.createDirectories(cacheFile.getParent());
+        synchronized (SAVE_LOCK) {
+            try (FileChannel lockChannel = FileChannel.open(cacheFile.resolveSibling(LOCK_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                Map<String, Entry> merged = new TreeMap<>(readEntries(cacheFile));
+                merged.putAll(entries);
+                write(merged);
+            }
+        }
+        dirty = false;
+    }
+
+    private void write(final Map<String, Entry> merged) throws IOException {
+        CacheFile content = new CacheFile();
+        content.entries = merged;
+        Path tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+        try {
+            JSON_MAPPER.writeValue(tempFile.toFile(), content);
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static Map<String, Entry> readEntries(final Path cacheFile) throws IOException {
+        if (!Files.isRegularFile(cacheFile)) {
+            return Collections.emptyMap();
+        }
+        CacheFile content = JSON_MAPPER.readValue(cacheFile.toFile(), CacheFile.class);
+        return content.entries == null ? Collections.<String, Entry>emptyMap() : content.entries;
+    }
+
+    private static boolean isCacheable(final Artifact artifact, final File pomFile) {
+        return !artifact.isSnapshot()
+                && (artifact.getVersion() == null || !artifact.getVersion().endsWith(Artifact.SNAPSHOT_VERSION))
+                && pomFile != null
+                && pomFile.isFile();
+    }
+
+    private static String key(final Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+
+    private static String stampOf(final File pomFile) {
+        return pomFile.length() + "@" + pomFile.lastModified();
+    }
+
+    /**
+     * Internal class mapping the cache file content.
+     */
+    private static class CacheFile {
+        public Map<String, Entry> entries;
+    }
+
+    /**
+     * Internal class mapping a single cache entry.
+     */
+    private static class Entry {
+        public String pomStamp;
+        public List<String> licenses;
+
+        public Entry() {
+        }
+
+        public Entry(final String pomStamp, final List<String> licenses) {
+            this.pomStamp = pomStamp;
+            this.licenses = licenses;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.csoft.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.csoft.utils.TextUtils;
+
+/**
+ * Class that implements the matching of a license string against the list of
+ * licenses to match, compiled once at construction time.
+ * <p>
+ * Literal entries are indexed in a hash map on their case-folded value, while
+ * 'regex:' entries are compiled once into {@link Pattern} objects. The entry
+ * returned for a license is always the first entry of the configured list
+ * that matches it, as if the list was scanned in order.
+ * <p>
+ * When a {@link SpdxNormalizer} is given, literal entries also match every
+ * license with the same SPDX identifier, e.g. an 'Apache-2.0' entry matches
+ * 'The Apache Software License, Version 2.0', through a second hash lookup.
+ */
+public class LicenseMatcher {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final List<String> entries;
+    private final Map<String, Integer> literalIndexes = new HashMap<>();
+    private final Map<String, Integer> spdxIndexes = new HashMap<>();
+    private final List<Integer> regexIndexes = new ArrayList<>();
+    private final List<Pattern> regexPatterns = new ArrayList<>();
+    private final SpdxNormalizer spdxNormalizer;
+    private long regexEvaluations;
+
+    public LicenseMatcher(final List<String> licensesToMatch) {
+        this(licensesToMatch, null);
+    }
+
+    /**
+     * @param licensesToMatch The licenses to match.
+     * @param spdxNormalizer  The normalizer matching the licenses on their SPDX
+     *                        identifier; null restricts the matching to the literal values.
+     */
+    public LicenseMatcher(final List<String> licensesToMatch, final SpdxNormalizer spdxNormalizer) {
+        this.entries = new ArrayList<>(licensesToMatch);
+        this.spdxNormalizer = spdxNormalizer;
+        for (int i = 0; i < entries.size(); i++) {
+            String entry = entries.get(i);
+            if (entry.startsWith(REGEX_PREFIX)) {
+                regexIndexes.add(i);
+                regexPatterns.add(Pattern.compile(TextUtils.parseAsRegex(entry), Pattern.CASE_INSENSITIVE));
+            } else {
+                literalIndexes.putIfAbsent(fold(entry), i);
+                String spdxId = spdxNormalizer != null ? spdxNormalizer.normalize(entry) : null;
+                if (spdxId != null) {
+                    spdxIndexes.putIfAbsent(spdxId, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the first configured entry matching the input license.
+     *
+     * @param license The license string.
+     * @return The matching entry, or null when no entry matches.
+     */
+    public String match(final String license) {
+        if (license == null) {
+            return null;
+        }
+        Integer literalIndex = literalIndexes.get(fold(license));
+        if (!spdxIndexes.isEmpty()) {
+            Integer spdxIndex = spdxIndexes.get(spdxNormalizer.normalize(license));
+            if (spdxIndex != null && (literalIndex == null || spdxIndex < literalIndex)) {
+                literalIndex = spdxIndex;
+            }
+        }
+        int limit = literalIndex != null ? literalIndex : Integer.MAX_VALUE;
+        // only regexes configured before the literal match can take precedence over it
+        for (int i = 0; i < regexPatterns.size() && regexIndexes.get(i) < limit; i++) {
+            regexEvaluations++;
+            if (regexPatterns.get(i).matcher(license).find()) {
+                return entries.get(regexIndexes.get(i));
+            }
+        }
+        return literalIndex != null ? entries.get(literalIndex) : null;
+    }
+
+    /**
+     * Returns the number of regular expressions evaluated by this matcher so far.
+     *
+     * @return long
+     */
+    public long getRegexEvaluations() {
+        return regexEvaluations;
+    }
+
+    /**
+     * Folds a string so that two strings have the same folded value if and
+     * only if {@link String#equalsIgnoreCase(String)} holds for them.
+     */
+    private static String fold(final String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
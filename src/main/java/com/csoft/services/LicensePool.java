@@ -0,0 +1,70 @@
+package com.csoft.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class that implements an interning pool for the license strings and the
+ * lists of licenses resolved during an audit.
+ * <p>
+ * Real dependency graphs use a handful of distinct licenses across thousands
+ * of artifacts: interning lets the resolved maps, the scanner and the report
+ * writers share a single instance of each license string and of each list of
+ * licenses, instead of one copy per artifact. Instances are safe to use from
+ * the resolver threads.
+ */
+public class LicensePool {
+
+    private final ConcurrentMap<String, String> licenses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<String>, List<String>> licenseLists = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the pooled instance of a license string.
+     *
+     * @param license The license string.
+     * @return A string equal to the input one, or null for a null input.
+     */
+    public String intern(final String license) {
+        if (license == null) {
+            return null;
+        }
+        String pooled = licenses.putIfAbsent(license, license);
+        return pooled != null ? pooled : license;
+    }
+
+    /**
+     * Returns the pooled, unmodifiable instance of a list of licenses, whose
+     * elements are pooled license strings.
+     *
+     * @param licenseList The list of licenses.
+     * @return A list equal to the input one, or null for a null input.
+     */
+    public List<String> intern(final List<String> licenseList) {
+        if (licenseList == null) {
+            return null;
+        }
+        List<String> pooled = licenseLists.get(licenseList);
+        if (pooled != null) {
+            return pooled;
+        }
+        List<String> interned = new ArrayList<>(licenseList.size());
+        for (String license : licenseList) {
+            interned.add(intern(license));
+        }
+        List<String> candidate = Collections.unmodifiableList(interned);
+        pooled = licenseLists.putIfAbsent(candidate, candidate);
+        return pooled != null ? pooled : candidate;
+    }
+
+    /**
+     * Returns the number of distinct license strings in the pool.
+     *
+     * @return int
+     */
+    public int size() {
+        return licenses.size();
+    }
+}
@@ -4,44 +4,50 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Pattern;
-
-import org.apache.maven.artifact.Artifact;
-
-import com.csoft.utils.TextUtils;
 
 /**
  * Class that implements the scanning of licesesToMatch agains the set of found
- * licenses in a Maven project.
+ * licenses in a Maven project. The licenses are resolved beforehand, once per
+ * audit, by the {@link DependencyAnalyzer}.
  */
 public class LicenseScanner {
 
     // special forbidden license string used for artifacts with no license at all
     public static final String NONE_LICENSE = "NONE";
 
-    private final DependencyAnalyzer dependencyAnalyzer;
     private final List<String> licensesToMatch;
+    private final LicenseMatcher licenseMatcher;
+    // verdicts per distinct license string, shared by all the scans of this scanner
+    private final Map<String, Match> verdicts = new HashMap<>();
+    private int verdictHits;
+    private int verdictMisses;
+
+    public LicenseScanner(final List<String> licensesToMatch) {
+        this(licensesToMatch, null);
+    }
 
-    public LicenseScanner(final DependencyAnalyzer dependencyAnalyzer,
-                          final List<String> licensesToMatch) {
-        this.dependencyAnalyzer = dependencyAnalyzer;
+    /**
+     * @param licensesToMatch The licenses to match.
+     * @param spdxNormalizer  The normalizer matching the licenses on their SPDX
+     *                        identifier; null restricts the matching to the literal values.
+     */
+    public LicenseScanner(final List<String> licensesToMatch,
+                          final SpdxNormalizer spdxNormalizer) {
         this.licensesToMatch = licensesToMatch;
+        this.licenseMatcher = new LicenseMatcher(licensesToMatch, spdxNormalizer);
     }
 
     /**
-     * Compares input set of {@link Artifact} objects derived from a Maven project
-     * agains the list of licenses to match.
+     * Compares an already resolved mapping of licenses per artifact against
+     * the list of licenses to match.
      * <p>
      * Matching can be done either literally at string equality or at regex
      * verification, if the input string begins with 'regex:' label.
      *
-     * @param artifacts Set of {@link Artifact} objects
+     * @param licenseMap Map of type {key: artifactGAVLabel, value: listOf[artifact licenses]}
      * @return Map of type {key: licenseToMatch, value: listOf[artifact GAV label]}
      */
-    public Map<String, List<String>> scan(final Set<Artifact> artifacts) {
-
-        Map<String, List<String>> licenseMap = dependencyAnalyzer.analyze(artifacts);
+    public Map<String, List<String>> scan(final Map<String, List<String>> licenseMap) {
 
         // initialise return map as empty map with empty lists as values;
         // also add "absent licenses" forbidden condition entry in license map
@@ -79,6 +85,35 @@ public class LicenseScanner {
         return returnMap;
     }
 
+    /**
+     * Checks the licenses of a single artifact against the list of licenses to
+     * match, with the same rules as {@link #scan(Map)}: the artifact violates
+     * the denylist when all its licenses match, or when it has no license.
+     * <p>
+     * Checks share the verdicts of the scans, hence a scan following the
+     * checks of the same artifacts evaluates no license string again.
+     *
+     * @param artifactLicenses The licenses of the artifact.
+     * @return The first license to match found, {@link #NONE_LICENSE} for an
+     * artifact with no license, or null when the artifact is allowed.
+     */
+    public String check(final List<String> artifactLicenses) {
+        if (artifactLicenses.isEmpty()) {
+            return NONE_LICENSE;
+        }
+        String firstMatch = null;
+        for (String artifactLicense : artifactLicenses) {
+            Match forbiddenMatch = matchOf(artifactLicense);
+            if (!forbiddenMatch.isMatch) {
+                return null;
+            }
+            if (firstMatch == null) {
+                firstMatch = forbiddenMatch.licenseEntry;
+            }
+        }
+        return firstMatch;
+    }
+
     private static void addLicenseToMapEntry(final Map<String, List<String>> map,
                                              final String key,
                                              final String newItemForValue) {
@@ -87,18 +122,47 @@ public class LicenseScanner {
         map.put(key, value);
     }
 
+    /**
+     * Returns how many license strings were resolved from the verdict cache.
+     *
+     * @return Number of cache hits.
+     */
+    public int getVerdictHits() {
+        return verdictHits;
+    }
+
+    /**
+     * Returns how many license strings had to be evaluated against the
+     * licenses to match, i.e. the number of distinct license strings seen.
+     *
+     * @return Number of cache misses.
+     */
+    public int getVerdictMisses() {
+        return verdictMisses;
+    }
+
+    /**
+     * Returns the number of regular expressions evaluated by this scanner so far.
+     *
+     * @return long
+     */
+    public long getRegexEvaluations() {
+        return licenseMatcher.getRegexEvaluations();
+    }
+
     private Match matchOf(final String license) {
-        for (String entry : licensesToMatch) {
-            if (entry.startsWith("regex:")) {
-                Pattern p = Pattern.compile(TextUtils.parseAsRegex(entry), Pattern.CASE_INSENSITIVE);
-                if (p.matcher(license).find()) {
-                    return new Match(entry);
-                }
-            } else if (entry.equalsIgnoreCase(license)) {
-                return new Match(entry);
-            }
+        // license strings are used verbatim as keys: regex entries may be sensitive to
+        // whitespace or non-ASCII case, so no normalization can be applied safely
+        Match verdict = verdicts.get(license);
+        if (verdict != null) {
+            verdictHits++;
+            return verdict;
         }
-        return new Match();
+        verdictMisses++;
+        String entry = licenseMatcher.match(license);
+        verdict = entry != null ? new Match(entry) : new Match();
+        verdicts.put(license, verdict);
+        return verdict;
     }
 
     private static class Match {
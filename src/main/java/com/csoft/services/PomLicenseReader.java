@@ -0,0 +1,270 @@
+package com.csoft.services;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.maven.artifact.Artifact;
+
+import com.csoft.utils.ArtifactUtils;
+
+/**
+ * Class that implements a lightweight extraction of the licenses of an
+ * artifact, reading only the {@code <licenses>} and {@code <parent>} elements
+ * of the raw POM files in the local repository.
+ * <p>
+ * Parent POMs are walked only when the artifact does not declare licenses on
+ * its own, mimicking the Maven inheritance rules. Whenever a POM cannot be
+ * handled faithfully without a full model build (missing files, property
+ * placeholders, malformed content...), the reader gives up and returns null,
+ * so that the caller can fall back to the Maven {@code ProjectBuilder}.
+ * <p>
+ * The outcome of each parent POM is cached by parent GAV: once the licenses of
+ * a parent are known, the children declaring no licenses of their own get them
+ * without walking the parent chain again, so the cost of a resolution grows
+ * with the number of distinct parents rather than with the number of artifacts.
+ * Instances are safe to use from the resolver threads.
+ */
+public class PomLicenseReader {
+
+    private static final int MAX_PARENT_DEPTH = 32;
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    // marks the parents whose licenses cannot be read without a full model build
+    private static final PomLicenses UNSUPPORTED = new PomLicenses(null, -1);
+
+    private final File localRepositoryDir;
+    // licenses of each parent GAV, with the depth relative to the parent itself
+    private final Map<String, PomLicenses> parentLicenses = new ConcurrentHashMap<>();
+    // number of ancestors of each parent GAV
+    private final Map<String, Integer> parentDepths = new ConcurrentHashMap<>();
+
+    public PomLicenseReader(final File localRepositoryDir) {
+        this.localRepositoryDir = localRepositoryDir;
+    }
+
+    /**
+     * Reads the licenses of an {@link Artifact} from its POM file, and from
+     * the POM files of its parents when needed.
+     *
+     * @param artifact The artifact.
+     * @return List of licenses, or null when the POM cannot be handled by the reader.
+     */
+    public List<String> readLicenses(final Artifact artifact) {
+        PomLicenses pomLicenses = read(artifact);
+        return pomLicenses != null ? pomLicenses.getLicenses() : null;
+    }
+
+    /**
+     * Reads the licenses of an {@link Artifact} like {@link #readLicenses(Artifact)},
+     * also telling how many parent POMs had to be walked to find them.
+     *
+     * @param artifact The artifact.
+     * @return the licenses read, or null when the POM cannot be handled by the reader.
+     */
+    public PomLicenses read(final Artifact artifact) {
+        return read(ArtifactUtils.getLocalPomFile(localRepositoryDir, artifact), 0);
+    }
+
+    private PomLicenses read(final File pomFile, final int depth) {
+        if (depth > MAX_PARENT_DEPTH || !pomFile.isFile()) {
+            return null;
+        }
+        PomHeader header;
+        try {
+            header = readHeader(pomFile, false);
+        } catch (IOException | XMLStreamException e) {
+            return null;
+        }
+        if (header == null) {
+            return null;
+        }
+        if (!header.licenses.isEmpty()) {
+            return new PomLicenses(Collections.unmodifiableList(header.licenses), depth);
+        }
+        if (header.parentArtifactId == null) {
+            return new PomLicenses(Collections.<String>emptyList(), depth);
+        }
+        return readParent(header, depth + 1);
+    }
+
+    private PomLicenses readParent(final PomHeader header, final int depth) {
+        String parentKey = header.parentKey();
+        PomLicenses cached = parentLicenses.get(parentKey);
+        if (cached == null) {
+            PomLicenses resolved = read(ArtifactUtils.getLocalPomFile(localRepositoryDir,
+                    header.parentGroupId, header.parentArtifactId, header.parentVersion), depth);
+            cached = resolved != null
+                    ? new PomLicenses(resolved.getLicenses(), resolved.getParentDepth() - depth)
+                    : UNSUPPORTED;
+            parentLicenses.putIfAbsent(parentKey, cached);
+        }
+        return cached != UNSUPPORTED ? new PomLicenses(cached.getLicenses(), cached.getParentDepth() + depth) : null;
+    }
+
+    /**
+     * Counts the ancestors of an {@link Artifact}, following the {@code <parent>}
+     * elements of the POM files in the local repository. The walk stops at the
+     * first parent which cannot be located.
+     *
+     * @param artifact The artifact.
+     * @return the depth of the parent chain.
+     */
+    public int readParentDepth(final Artifact artifact) {
+        return readParentDepth(ArtifactUtils.getLocalPomFile(localRepositoryDir, artifact), 0);
+    }
+
+    private int readParentDepth(final File pomFile, final int depth) {
+        if (depth >= MAX_PARENT_DEPTH || !pomFile.isFile()) {
+            return 0;
+        }
+        PomHeader header;
+        try {
+            header = readHeader(pomFile, true);
+        } catch (IOException | XMLStreamException e) {
+            return 0;
+        }
+        if (header == null || header.parentArtifactId == null) {
+            return 0;
+        }
+        String parentKey = header.parentKey();
+        Integer ancestors = parentDepths.get(parentKey);
+        if (ancestors == null) {
+            ancestors = readParentDepth(ArtifactUtils.getLocalPomFile(localRepositoryDir,
+                    header.parentGroupId, header.parentArtifactId, header.parentVersion), depth + 1);
+            parentDepths.putIfAbsent(parentKey, ancestors);
+        }
+        return 1 + ancestors;
+    }
+
+    /**
+     * Streams the POM up to the end of its {@code <licenses>} section, or up
+     * to the end of the document when no license is declared.
+     *
+     * @param parentOnly Whether to stop at the end of the {@code <parent>} section.
+     * @return the parsed header, or null when the POM contains content that
+     * requires a full model build.
+     */
+    private static PomHeader readHeader(final File pomFile,
+                                        final boolean parentOnly) throws IOException, XMLStreamException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(pomFile))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                PomHeader header = new PomHeader();
+                int depth = 0;
+                String section = null;
+                String licenseName = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        String name = reader.getLocalName();
+                        if (depth == 2) {
+                            section = name;
+                        } else if (depth == 3 && "parent".equals(section)) {
+                            // getElementText consumes the matching end element
+                            header.setParentCoordinate(name, reader.getElementText().trim());
+                            depth--;
+                        } else if (depth == 3 && "licenses".equals(section) && "license".equals(name)) {
+                            licenseName = null;
+                        } else if (depth == 4 && "licenses".equals(section) && "name".equals(name)) {
+                            licenseName = reader.getElementText().trim();
+                            depth--;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 3 && "licenses".equals(section)) {
+                            if (licenseName == null || licenseName.contains("${")) {
+                                return null;
+                            }
+                            header.licenses.add(licenseName);
+                        } else if (depth == 2 && "licenses".equals(section) && !header.licenses.isEmpty()) {
+                            // own licenses found: the rest of the POM is irrelevant
+                            break;
+                        } else if (depth == 2 && "parent".equals(section) && parentOnly) {
+                            break;
+                        }
+                        depth--;
+                    }
+                }
+                return !header.licenses.isEmpty() || header.isParentSupported() ? header : null;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    /**
+     * The licenses read for an artifact, along with the number of parent POMs
+     * walked to find them.
+     */
+    public static class PomLicenses {
+        private final List<String> licenses;
+        private final int parentDepth;
+
+        PomLicenses(final List<String> licenses, final int parentDepth) {
+            this.licenses = licenses;
+            this.parentDepth = parentDepth;
+        }
+
+        public List<String> getLicenses() {
+            return licenses;
+        }
+
+        public int getParentDepth() {
+            return parentDepth;
+        }
+    }
+
+    /**
+     * Internal class holding the parsed subset of a POM.
+     */
+    private static class PomHeader {
+        private final List<String> licenses = new ArrayList<>();
+        private String parentGroupId;
+        private String parentArtifactId;
+        private String parentVersion;
+
+        void setParentCoordinate(final String name, final String value) {
+            if ("groupId".equals(name)) {
+                parentGroupId = value;
+            } else if ("artifactId".equals(name)) {
+                parentArtifactId = value;
+            } else if ("version".equals(name)) {
+                parentVersion = value;
+            }
+        }
+
+        String parentKey() {
+            return parentGroupId + ":" + parentArtifactId + ":" + parentVersion;
+        }
+
+        boolean isParentSupported() {
+            if (parentGroupId == null && parentArtifactId == null && parentVersion == null) {
+                return true;
+            }
+            return isLiteral(parentGroupId) && isLiteral(parentArtifactId) && isLiteral(parentVersion);
+        }
+
+        private static boolean isLiteral(final String value) {
+            return value != null && !value.isEmpty() && !value.contains("${");
+        }
+    }
+}
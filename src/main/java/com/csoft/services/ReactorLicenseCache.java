@@ -0,0 +1,97 @@
+package com.csoft.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Class that implements an in-memory cache of the resolved licenses shared by
+ * all the modules of a reactor build, so that an artifact used by several
+ * modules is resolved only once per Maven invocation.
+ * <p>
+ * One instance exists per {@link MavenExecutionRequest}, which is the only
+ * object shared by all the (possibly cloned) sessions of a build, and it is
+ * released together with the request. Loading is single-flight: when several
+ * modules built in parallel with {@code mvn -T} ask for the same artifact at
+ * the same time, only one of them resolves it and the others wait for its result.
+ */
+public class ReactorLicenseCache {
+
+    private static final Map<MavenExecutionRequest, ReactorLicenseCache> INSTANCES = new WeakHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<List<String>>> licenses = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cache bound to the Maven invocation of the input session.
+     *
+     * @param session The current {@link MavenSession}.
+     * @return The shared {@link ReactorLicenseCache}.
+     */
+    public static ReactorLicenseCache forSession(final MavenSession session) {
+        MavenExecutionRequest request = session.getRequest();
+        if (request == null) {
+            return new ReactorLicenseCache();
+        }
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(request, key -> new ReactorLicenseCache());
+        }
+    }
+
+    /**
+     * Returns whether another module of the reactor resolved (or is resolving)
+     * the licenses of an artifact.
+     *
+     * @param artifact The artifact.
+     * @return boolean
+     */
+    public boolean contains(final Artifact artifact) {
+        return licenses.containsKey(key(artifact));
+    }
+
+    /**
+     * Returns the licenses of an artifact, invoking the loader only if no other
+     * module of the reactor resolved (or is resolving) the same artifact.
+     *
+     * @param artifact The artifact.
+     * @param loader   Function resolving the licenses of the artifact.
+     * @return List of licenses.
+     */
+    public List<String> get(final Artifact artifact, final Supplier<List<String>> loader) {
+        String key = key(artifact);
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        CompletableFuture<List<String>> existing = licenses.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            List<String> loaded = loader.get();
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            // do not keep failures around: a later lookup is allowed to retry
+            licenses.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static String key(final Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+}
@@ -1,21 +1,33 @@
 package com.csoft.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
+import com.csoft.utils.DaemonThreadFactory;
 import org.apache.maven.project.MavenProject;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Class that implements generation of a LicenseScan report in the build output dir.
@@ -27,15 +39,183 @@ public class ReportBuilder {
     private static final String JSON_REPORT_FILE_NAME = "license-scan-report.json";
     private static final String HTML_REPORT_TEMPLATE_NAME = "report.template.mustache";
     private static final String HTML_REPORT_FILE_NAME = "index.html";
-    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     private static final Mustache HTML_MAPPER = new DefaultMustacheFactory().compile(HTML_REPORT_TEMPLATE_NAME);
 
     private final MavenProject project;
+    private AuditMetrics auditMetrics = new AuditMetrics();
 
     public ReportBuilder(final MavenProject project) {
         this.project = project;
     }
 
+    /**
+     * Sets the {@link AuditMetrics} collecting the rendering timings.
+     *
+     * @param auditMetrics The metrics of the current audit.
+     */
+    public void setAuditMetrics(final AuditMetrics auditMetrics) {
+        this.auditMetrics = auditMetrics;
+    }
+
+    /**
+     * Returns the directory of the build output dir hosting the Reports.
+     *
+     * @return Path of the reports directory.
+     */
+    public Path getReportDirectory() {
+        return Paths.get(project.getBuild().getDirectory()).resolve(REPORTING_BUILD_SUBDIR);
+    }
+
+    /**
+     * Deletes the Reports of a previous audit from the build dir, if any.
+     *
+     * @throws IOException When a report cannot be deleted.
+     */
+    public void deleteReports() throws IOException {
+        Path reportPath = getReportDirectory();
+        Files.deleteIfExists(reportPath.resolve(JSON_REPORT_FILE_NAME));
+        Files.deleteIfExists(reportPath.resolve(HTML_REPORT_FILE_NAME));
+    }
+
+    /**
+     * Tells whether the Reports of the requested formats are all present in
+     * the build dir, e.g. to reuse those of a previous audit.
+     *
+     * @param formats formats of the reports to look for
+     * @return whether every report exists.
+     */
+    public boolean hasReports(final Set<ReportFormat> formats) {
+        Path reportPath = getReportDirectory();
+        for (ReportFormat format : formats) {
+            String reportFileName = format == ReportFormat.JSON ? JSON_REPORT_FILE_NAME : HTML_REPORT_FILE_NAME;
+            if (!Files.isRegularFile(reportPath.resolve(reportFileName))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Produces the Reports in the requested formats in the build dir. All the
+     * formats are rendered from the same immutable report model, each one on
+     * its own thread when more than one format is requested.
+     *
+     * @param formats       formats of the reports to produce
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     * @param modulesMap    artifact-to-modules map, or null for a single-module report
+     * @return Path of each report location on filesystem, by format.
+     * @throws IOException When serialization problems occur
+     */
+    public Map<ReportFormat, String> buildReports(final Set<ReportFormat> formats,
+                                                  final Map<String, List<String>> licenseMap,
+                                                  final Map<String, List<String>> violationsMap,
+                                                  final Map<String, List<String>> modulesMap) throws IOException {
+        return buildReports(formats, licenseMap, violationsMap, modulesMap, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Produces the Reports in the requested formats in the build dir, listing
+     * also the artifacts whose licenses could not be resolved.
+     *
+     * @param formats       formats of the reports to produce
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     * @param modulesMap    artifact-to-modules map, or null for a single-module report
+     * @param unresolvedMap unresolved artifact -to- failure reason map
+     * @return Path of each report location on filesystem, by format.
+     * @throws IOException When serialization problems occur
+     */
+    public Map<ReportFormat, String> buildReports(final Set<ReportFormat> formats,
+                                                  final Map<String, List<String>> licenseMap,
+                                                  final Map<String, List<String>> violationsMap,
+                                                  final Map<String, List<String>> modulesMap,
+                                                  final Map<String, String> unresolvedMap) throws IOException {
+        return buildReports(formats, licenseMap, violationsMap, modulesMap, unresolvedMap,
+                Collections.<String, List<String>>emptyMap());
+    }
+
+    /**
+     * Produces the Reports in the requested formats in the build dir, listing
+     * also the unresolved artifacts and the dependency path which pulled each
+     * violating Transitive artifact in.
+     *
+     * @param formats       formats of the reports to produce
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     * @param modulesMap    artifact-to-modules map, or null for a single-module report
+     * @param unresolvedMap unresolved artifact -to- failure reason map
+     * @param pathsMap      artifact -to- dependency path map, from the Direct dependency to the artifact
+     * @return Path of each report location on filesystem, by format.
+     * @throws IOException When serialization problems occur
+     */
+    public Map<ReportFormat, String> buildReports(final Set<ReportFormat> formats,
+                                                  final Map<String, List<String>> licenseMap,
+                                                  final Map<String, List<String>> violationsMap,
+                                                  final Map<String, List<String>> modulesMap,
+                                                  final Map<String, String> unresolvedMap,
+                                                  final Map<String, List<String>> pathsMap) throws IOException {
+        Map<ReportFormat, String> reportFiles = new EnumMap<>(ReportFormat.class);
+        if (formats.isEmpty()) {
+            return reportFiles;
+        }
+        Path reportPath = Files.createDirectories(getReportDirectory());
+        Report report = new Report(project, licenseMap, violationsMap, modulesMap, unresolvedMap, pathsMap);
+        if (formats.size() == 1) {
+            ReportFormat format = formats.iterator().next();
+            reportFiles.put(format, render(format, report, reportPath));
+            return reportFiles;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(formats.size(),
+                new DaemonThreadFactory("licensescan-report"));
+        try {
+            Map<ReportFormat, Future<String>> futures = new EnumMap<>(ReportFormat.class);
+            for (ReportFormat format : formats) {
+                futures.put(format, executor.submit(() -> render(format, report, reportPath)));
+            }
+            for (Map.Entry<ReportFormat, Future<String>> future : futures.entrySet()) {
+                reportFiles.put(future.getKey(), future.getValue().get());
+            }
+            return reportFiles;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating the reports");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String render(final ReportFormat format,
+                          final Report report,
+                          final Path reportPath) throws IOException {
+        long start = System.nanoTime();
+        switch (format) {
+            case JSON:
+                String jsonReportFile = renderJson(report, reportPath);
+                auditMetrics.recordPhase(AuditMetrics.Phase.JSON_RENDERING, start);
+                return jsonReportFile;
+            case HTML:
+                String htmlReportFile = renderHtml(report, reportPath);
+                auditMetrics.recordPhase(AuditMetrics.Phase.HTML_RENDERING, start);
+                return htmlReportFile;
+            default:
+                throw new IllegalArgumentException("Unsupported report format " + format);
+        }
+    }
+
     /**
      * Produces a Report in the build dir in JSON format.
      *
@@ -46,16 +226,79 @@ public class ReportBuilder {
      */
     public String buildJsonReport(final Map<String, List<String>> licenseMap,
                                   final Map<String, List<String>> violationsMap) throws IOException {
-        ObjectNode root = JSON_MAPPER.createObjectNode();
-        String jsonLicenseScan = JSON_MAPPER.writeValueAsString(new Results(licenseMap, violationsMap));
-        root.put("licenseScanResults", JSON_MAPPER.readTree(jsonLicenseScan));
-        Path reportPath = Files.createDirectories(
-                Paths.get(project.getBuild().getDirectory()).resolve(REPORTING_BUILD_SUBDIR));
-        File jsonReportFile = reportPath.resolve(JSON_REPORT_FILE_NAME).toFile();
-        JSON_MAPPER.writerWithDefaultPrettyPrinter().writeValue(jsonReportFile, root);
+        return buildJsonReport(licenseMap, violationsMap, null);
+    }
+
+    /**
+     * Produces a Report in the build dir in JSON format, listing also the
+     * modules of the reactor using each artifact.
+     *
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     * @param modulesMap    artifact-to-modules map, or null for a single-module report
+     * @return Path of report location on filesystem.
+     * @throws IOException When serialization problems occur
+     */
+    public String buildJsonReport(final Map<String, List<String>> licenseMap,
+                                  final Map<String, List<String>> violationsMap,
+                                  final Map<String, List<String>> modulesMap) throws IOException {
+        return buildReports(EnumSet.of(ReportFormat.JSON), licenseMap, violationsMap, modulesMap)
+                .get(ReportFormat.JSON);
+    }
+
+    private static String renderJson(final Report report, final Path reportPath) throws IOException {
+        Path jsonReportFile = reportPath.resolve(JSON_REPORT_FILE_NAME);
+        // stream the report in a single pass, without building an intermediate tree in memory
+        try (OutputStream out = Files.newOutputStream(jsonReportFile);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("licenseScanResults");
+            writeMap(generator, "licenseMap", report.licenseMap);
+            writeMap(generator, "violationsMap", report.violationsMap);
+            if (report.modulesMap != null) {
+                writeMap(generator, "modulesMap", report.modulesMap);
+            }
+            if (!report.unresolvedMap.isEmpty()) {
+                generator.writeObjectFieldStart("unresolvedMap");
+                for (Map.Entry<String, String> entry : report.unresolvedMap.entrySet()) {
+                    generator.writeStringField(entry.getKey(), entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            if (!report.pathsMap.isEmpty()) {
+                writeMap(generator, "pathsMap", report.pathsMap);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
         return jsonReportFile.toString();
     }
 
+    private static void writeMap(final JsonGenerator generator,
+                                 final String fieldName,
+                                 final Map<String, List<String>> map) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (map == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            if (entry.getValue() == null) {
+                generator.writeNull();
+                continue;
+            }
+            generator.writeStartArray();
+            for (String item : entry.getValue()) {
+                generator.writeString(item);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
     /**
      * Produces a Report in the build dir in HTML format.
      *
@@ -66,28 +309,81 @@ public class ReportBuilder {
      */
     public String buildHtmlReport(final Map<String, List<String>> licenseMap,
                                   final Map<String, List<String>> violationsMap) throws IOException {
-        Path reportPath = Files.createDirectories(
-                Paths.get(project.getBuild().getDirectory()).resolve(REPORTING_BUILD_SUBDIR));
-        File htmlReportFile = reportPath.resolve(HTML_REPORT_FILE_NAME).toFile();
-        HTML_MAPPER.execute(new FileWriter(htmlReportFile), new Report(project, licenseMap, violationsMap)).flush();
+        return buildHtmlReport(licenseMap, violationsMap, null);
+    }
+
+    /**
+     * Produces a Report in the build dir in HTML format, listing also the
+     * modules of the reactor using each artifact.
+     *
+     * @param licenseMap    artifact-to-licenses map
+     * @param violationsMap forbidden license -to- blocked artifact map
+     * @param modulesMap    artifact-to-modules map, or null for a single-module report
+     * @return Path of report location on filesystem.
+     * @throws IOException When serialization problems occur
+     */
+    public String buildHtmlReport(final Map<String, List<String>> licenseMap,
+                                  final Map<String, List<String>> violationsMap,
+                                  final Map<String, List<String>> modulesMap) throws IOException {
+        return buildReports(EnumSet.of(ReportFormat.HTML), licenseMap, violationsMap, modulesMap)
+                .get(ReportFormat.HTML);
+    }
+
+    /**
+     * Renders the HTML report to a writer, which is neither flushed nor closed.
+     *
+     * @param writer writer the report is rendered to
+     * @param report report model to render
+     */
+    static void writeHtmlReport(final Writer writer, final Report report) {
+        HTML_MAPPER.execute(writer, report);
+    }
+
+    private static String renderHtml(final Report report, final Path reportPath) throws IOException {
+        Path htmlReportFile = reportPath.resolve(HTML_REPORT_FILE_NAME);
+        // Mustache issues many small writes: buffer them ahead of the charset encoder,
+        // and always release the file handle
+        try (Writer writer = Files.newBufferedWriter(htmlReportFile, StandardCharsets.UTF_8)) {
+            writeHtmlReport(writer, report);
+        }
         return htmlReportFile.toString();
     }
 
     /**
-     * Internal class used by Mustache to back the Report template.
+     * Internal immutable model shared by all the report formats, also used by
+     * Mustache to back the Report template.
      */
-    private static class Report {
+    static class Report {
 
         private final MavenProject project;
         private final Map<String, List<String>> licenseMap;
         private final Map<String, List<String>> violationsMap;
+        private final Map<String, List<String>> modulesMap;
+        private final Map<String, String> unresolvedMap;
+        private final Map<String, List<String>> pathsMap;
+        private final String reportDate;
 
         public Report(final MavenProject project,
                       final Map<String, List<String>> licenseMap,
-                      final Map<String, List<String>> violationsMap) {
+                      final Map<String, List<String>> violationsMap,
+                      final Map<String, List<String>> modulesMap,
+                      final Map<String, String> unresolvedMap,
+                      final Map<String, List<String>> pathsMap) {
             this.project = project;
-            this.licenseMap = licenseMap;
-            this.violationsMap = violationsMap;
+            this.licenseMap = unmodifiable(licenseMap);
+            this.violationsMap = unmodifiable(violationsMap);
+            this.modulesMap = unmodifiable(modulesMap);
+            this.unresolvedMap = unresolvedMap != null
+                    ? Collections.unmodifiableMap(unresolvedMap)
+                    : Collections.<String, String>emptyMap();
+            this.pathsMap = pathsMap != null
+                    ? Collections.unmodifiableMap(pathsMap)
+                    : Collections.<String, List<String>>emptyMap();
+            this.reportDate = new Date().toString();
+        }
+
+        private static Map<String, List<String>> unmodifiable(final Map<String, List<String>> map) {
+            return map != null ? Collections.unmodifiableMap(map) : null;
         }
 
         /**
@@ -114,7 +410,7 @@ public class ReportBuilder {
          * @return String
          */
         public String reportDate() {
-            return new Date().toString();
+            return reportDate;
         }
 
         /**
@@ -127,40 +423,138 @@ public class ReportBuilder {
         }
 
         /**
-         * Returns the artefacts-to-licenses entry-set.
+         * Returns whether the Report covers all the modules of a reactor.
          *
-         * @return Set
+         * @return boolean
+         */
+        public boolean aggregated() {
+            return modulesMap != null;
+        }
+
+        /**
+         * Returns the artefacts-to-licenses entries.
+         *
+         * @return List
+         */
+        public List<LicenseEntry> licenses() {
+            List<LicenseEntry> entries = new ArrayList<>(licenseMap.size());
+            for (Map.Entry<String, List<String>> entry : licenseMap.entrySet()) {
+                List<String> modules = modulesMap != null ? modulesMap.get(entry.getKey()) : null;
+                entries.add(new LicenseEntry(entry.getKey(), entry.getValue(), modules));
+            }
+            return entries;
+        }
+
+        /**
+         * Returns the forbiddenLicenses-to-matchedArtefacts entries.
+         *
+         * @return List
          */
-        public Set<Map.Entry<String, List<String>>> licenses() {
-            return licenseMap.entrySet();
+        public List<ViolationEntry> violations() {
+            List<ViolationEntry> entries = new ArrayList<>(violationsMap.size());
+            for (Map.Entry<String, List<String>> entry : violationsMap.entrySet()) {
+                List<BlockedArtifact> artifacts = new ArrayList<>(entry.getValue().size());
+                for (String artifact : entry.getValue()) {
+                    artifacts.add(new BlockedArtifact(artifact, pathsMap.get(artifact)));
+                }
+                entries.add(new ViolationEntry(entry.getKey(), artifacts));
+            }
+            return entries;
         }
 
         /**
-         * Returns the forbiddenLicenses-to-matchedArtefacts entry-set.
+         * Returns whether any artifact could not be resolved.
+         *
+         * @return boolean
+         */
+        public boolean hasUnresolved() {
+            return !unresolvedMap.isEmpty();
+        }
+
+        /**
+         * Returns the unresolvedArtefacts-to-failureReason entry-set.
          *
          * @return Set
          */
-        public Set<Map.Entry<String, List<String>>> violations() {
-            return violationsMap.entrySet();
+        public Set<Map.Entry<String, String>> unresolved() {
+            return unresolvedMap.entrySet();
+        }
+
+    }
+
+
+    /**
+     * Internal class used by Mustache to back a row of the licenses table.
+     */
+    private static class LicenseEntry {
+
+        private final String key;
+        private final List<String> value;
+        private final List<String> modules;
+
+        public LicenseEntry(final String key,
+                            final List<String> value,
+                            final List<String> modules) {
+            this.key = key;
+            this.value = value;
+            this.modules = modules != null ? modules : Collections.<String>emptyList();
+        }
+
+        public String key() {
+            return key;
         }
 
+        public List<String> value() {
+            return value;
+        }
+
+        public List<String> modules() {
+            return modules;
+        }
     }
 
+    /**
+     * Internal class used by Mustache to back a row of the violations table.
+     */
+    private static class ViolationEntry {
+
+        private final String key;
+        private final List<BlockedArtifact> value;
+
+        public ViolationEntry(final String key, final List<BlockedArtifact> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public List<BlockedArtifact> value() {
+            return value;
+        }
+    }
 
     /**
-     * Internal class used to build the auxiliary Json report file.
+     * Internal class used by Mustache to back a blocked artifact, along with
+     * the dependencies which pulled it in.
      */
-    private static class Results {
-        public Map<String, List<String>> licenseMap;
-        public Map<String, List<String>> violationsMap;
+    private static class BlockedArtifact {
+
+        private final String artifact;
+        private final String via;
+
+        public BlockedArtifact(final String artifact, final List<String> path) {
+            this.artifact = artifact;
+            this.via = path != null ? String.join(" > ", path.subList(0, path.size() - 1)) : null;
+        }
 
-        public Results() {
+        public String artifact() {
+            return artifact;
         }
 
-        public Results(final Map<String, List<String>> licenseMap,
-                       final Map<String, List<String>> violationsMap) {
-            this.licenseMap = licenseMap;
-            this.violationsMap = violationsMap;
+        public String via() {
+            return via;
         }
     }
 }
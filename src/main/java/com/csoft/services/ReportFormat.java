@@ -0,0 +1,28 @@
+package com.csoft.services;
+
+import java.util.Locale;
+
+/**
+ * Formats in which a LicenseScan report can be generated.
+ */
+public enum ReportFormat {
+
+    JSON,
+    HTML;
+
+    /**
+     * Parses a format name as given in the plugin configuration, ignoring case.
+     *
+     * @param name The format name, e.g. 'json'.
+     * @return the matching format.
+     * @throws IllegalArgumentException When the name matches no format.
+     */
+    public static ReportFormat fromName(final String name) {
+        for (ReportFormat format : values()) {
+            if (format.name().equals(name.trim().toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report format '" + name + "'");
+    }
+}
@@ -0,0 +1,76 @@
+package com.csoft.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable outcome of a single license resolution pass over the dependencies
+ * of a Maven project.
+ * <p>
+ * Every artifact is resolved exactly once; the direct, transitive and
+ * cumulative views are derived from the same resolved data and can be shared
+ * between the logger, the scanner and the report writers. Artifacts which
+ * could not be resolved are kept apart, with the reason of the failure.
+ */
+public class ResolutionResult {
+
+    private final Map<String, List<String>> directLicenses;
+    private final Map<String, List<String>> transitiveLicenses;
+    private final Map<String, List<String>> allLicenses;
+    private final Map<String, String> unresolvedArtifacts;
+
+    public ResolutionResult(final Map<String, List<String>> directLicenses,
+                            final Map<String, List<String>> transitiveLicenses) {
+        this(directLicenses, transitiveLicenses, Collections.<String, String>emptyMap());
+    }
+
+    public ResolutionResult(final Map<String, List<String>> directLicenses,
+                            final Map<String, List<String>> transitiveLicenses,
+                            final Map<String, String> unresolvedArtifacts) {
+        this.directLicenses = Collections.unmodifiableMap(new LinkedHashMap<>(directLicenses));
+        this.transitiveLicenses = Collections.unmodifiableMap(new LinkedHashMap<>(transitiveLicenses));
+        Map<String, List<String>> all = new LinkedHashMap<>(directLicenses);
+        all.putAll(transitiveLicenses);
+        this.allLicenses = Collections.unmodifiableMap(all);
+        this.unresolvedArtifacts = Collections.unmodifiableMap(new LinkedHashMap<>(unresolvedArtifacts));
+    }
+
+    /**
+     * Returns the licenses of the Direct dependencies.
+     *
+     * @return Map of type {key: artifactGAVLabel, value: listOf[artifact licenses]}
+     */
+    public Map<String, List<String>> getDirectLicenses() {
+        return directLicenses;
+    }
+
+    /**
+     * Returns the licenses of the Transitive dependencies.
+     *
+     * @return Map of type {key: artifactGAVLabel, value: listOf[artifact licenses]}
+     */
+    public Map<String, List<String>> getTransitiveLicenses() {
+        return transitiveLicenses;
+    }
+
+    /**
+     * Returns the licenses of All dependencies (Direct + Transitive).
+     *
+     * @return Map of type {key: artifactGAVLabel, value: listOf[artifact licenses]}
+     */
+    public Map<String, List<String>> getAllLicenses() {
+        return allLicenses;
+    }
+
+    /**
+     * Returns the dependencies whose licenses could not be resolved. They are
+     * not part of any of the license maps.
+     *
+     * @return Map of type {key: artifactGAVLabel, value: failure reason}
+     */
+    public Map<String, String> getUnresolvedArtifacts() {
+        return unresolvedArtifacts;
+    }
+}
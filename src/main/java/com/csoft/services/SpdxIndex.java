@@ -0,0 +1,194 @@
+package com.csoft.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class that implements the compact binary index of the SPDX license list
+ * bundled with the plugin.
+ * <p>
+ * The index is generated at build time from the source list by the
+ * {@code SpdxIndexGenerator} of the build-only sources (src/build/java), which
+ * are not packaged in the plugin jar, and searched in place, without being parsed:
+ * <pre>
+ *   header  : magic 'SPDX', format version, license count, alias count (4 ints)
+ *   licenses: one 9-byte record per license: id offset, name offset (ints), flags (byte)
+ *   aliases : one 6-byte record per folded alias, sorted by UTF-8 bytes:
+ *             alias offset (int), license number (short)
+ *   strings : pool of unsigned-short-prefixed UTF-8 strings, addressed by the offsets
+ * </pre>
+ * Alias lookups are binary searches over the alias records, comparing the
+ * folded license against the pooled bytes; only the matching license id is
+ * decoded. All the numbers are big-endian.
+ */
+public final class SpdxIndex {
+
+    // shared with the generator writing the index
+    static final int MAGIC = 0x53504458;
+    static final int FORMAT_VERSION = 1;
+    static final int FLAG_OSI_APPROVED = 1;
+    static final int FLAG_DEPRECATED = 2;
+    static final int FLAG_EXCEPTION = 4;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int LICENSE_RECORD_SIZE = 9;
+    private static final int ALIAS_RECORD_SIZE = 6;
+
+    private final ByteBuffer buffer;
+    private final int licenseCount;
+    private final int aliasCount;
+    private final int aliasesStart;
+    private final int stringsStart;
+
+    private SpdxIndex(final ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an SPDX license index");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported SPDX license index version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.licenseCount = buffer.getInt(8);
+        this.aliasCount = buffer.getInt(12);
+        this.aliasesStart = HEADER_SIZE + licenseCount * LICENSE_RECORD_SIZE;
+        this.stringsStart = aliasesStart + aliasCount * ALIAS_RECORD_SIZE;
+    }
+
+    /**
+     * Opens an index resource: the index is memory-mapped when the resource is
+     * a plain file, e.g. in the classes directory, and read into a heap buffer
+     * when it is a jar entry, which cannot be mapped.
+     *
+     * @param resource The URL of the index.
+     * @return SpdxIndex
+     * @throws IOException When the index cannot be read.
+     */
+    public static SpdxIndex open(final URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(resource.toURI()), StandardOpenOption.READ)) {
+                // the mapping stays valid once the channel is closed
+                return new SpdxIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid SPDX license index location " + resource, e);
+            }
+        }
+        try (InputStream in = resource.openStream()) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads an index from a stream into a heap buffer.
+     *
+     * @param in The stream of the index.
+     * @return SpdxIndex
+     * @throws IOException When the index cannot be read.
+     */
+    public static SpdxIndex read(final InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return new SpdxIndex(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    boolean isMapped() {
+        return buffer.isDirect();
+    }
+
+    /**
+     * Returns the license number of a folded alias.
+     *
+     * @param foldedAlias The alias, folded as by {@link SpdxNormalizer}.
+     * @return The license number, or -1 when the alias is unknown.
+     */
+    public int indexOf(final String foldedAlias) {
+        byte[] key = foldedAlias.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = aliasCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int record = aliasesStart + middle * ALIAS_RECORD_SIZE;
+            int comparison = compareString(buffer.getInt(record), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return buffer.getShort(record + 4) & 0xFFFF;
+            }
+        }
+        return -1;
+    }
+
+    public String getId(final int license) {
+        return readString(buffer.getInt(licenseRecord(license)));
+    }
+
+    public String getName(final int license) {
+        return readString(buffer.getInt(licenseRecord(license) + 4));
+    }
+
+    public boolean isOsiApproved(final int license) {
+        return (flags(license) & FLAG_OSI_APPROVED) != 0;
+    }
+
+    public boolean isDeprecated(final int license) {
+        return (flags(license) & FLAG_DEPRECATED) != 0;
+    }
+
+    public boolean isException(final int license) {
+        return (flags(license) & FLAG_EXCEPTION) != 0;
+    }
+
+    public int getLicenseCount() {
+        return licenseCount;
+    }
+
+    public int getAliasCount() {
+        return aliasCount;
+    }
+
+    private int licenseRecord(final int license) {
+        if (license < 0 || license >= licenseCount) {
+            throw new IndexOutOfBoundsException("No SPDX license number " + license);
+        }
+        return HEADER_SIZE + license * LICENSE_RECORD_SIZE;
+    }
+
+    private int flags(final int license) {
+        return buffer.get(licenseRecord(license) + 8);
+    }
+
+    private int compareString(final int offset, final byte[] key) {
+        int start = stringsStart + offset + 2;
+        int length = buffer.getShort(stringsStart + offset) & 0xFFFF;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String readString(final int offset) {
+        int start = stringsStart + offset + 2;
+        byte[] bytes = new byte[buffer.getShort(stringsStart + offset) & 0xFFFF];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package com.csoft.services;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that implements the normalization of license names and URLs to SPDX
+ * license identifiers, through the {@link SpdxIndex} bundled with the plugin.
+ * <p>
+ * Aliases are indexed on their folded form, where case, punctuation,
+ * whitespace and a few noise words are not significant, so that e.g.
+ * 'Apache 2', 'ASL 2.0' and 'The Apache Software License, Version 2.0' all
+ * map to 'Apache-2.0'. The outcome of every lookup, unknown strings
+ * included, is memoized on the raw string, so that each distinct license
+ * string is folded once.
+ */
+public class SpdxNormalizer {
+
+    private static final String INDEX_RESOURCE = "/spdx-licenses.idx";
+    // marks the memoized strings matching no SPDX identifier
+    private static final String UNKNOWN = new String("");
+
+    private final SpdxIndex index;
+    private final Map<String, String> memo = new ConcurrentHashMap<>();
+
+    public SpdxNormalizer(final SpdxIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Returns the normalizer backed by the bundled index, loaded once on
+     * first use: audits which do not normalize licenses never load it.
+     *
+     * @return SpdxNormalizer
+     */
+    public static SpdxNormalizer getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the SPDX identifier of a license name or URL.
+     *
+     * @param license The license name or URL.
+     * @return The SPDX identifier, or null when the license is unknown.
+     */
+    public String normalize(final String license) {
+        if (license == null) {
+            return null;
+        }
+        String id = memo.get(license);
+        if (id == null) {
+            int spdxLicense = index.indexOf(fold(license));
+            id = spdxLicense >= 0 ? index.getId(spdxLicense) : UNKNOWN;
+            memo.put(license, id);
+        }
+        return id != UNKNOWN ? id : null;
+    }
+
+    /**
+     * Returns the index backing this normalizer, which also holds the full
+     * names and the flags of the licenses.
+     *
+     * @return SpdxIndex
+     */
+    public SpdxIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Folds a license name or URL to its lookup key: lower case, URL scheme,
+     * 'www.' and file extension removed, punctuation turned into spaces,
+     * 'licence' spelled 'license', and the words 'the' and 'version' and the
+     * 'v' prefix of version numbers dropped.
+     */
+    static String fold(final String license) {
+        String text = license.trim().toLowerCase(Locale.ROOT);
+        if (text.startsWith("http://") || text.startsWith("https://")) {
+            text = text.substring(text.indexOf("//") + 2);
+            if (text.startsWith("www.")) {
+                text = text.substring(4);
+            }
+            while (text.endsWith("/")) {
+                text = text.substring(0, text.length() - 1);
+            }
+            text = text.replaceFirst("\\.(txt|html?|php)$", "");
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || c == '.' || c == '+') {
+                token.append(c);
+                continue;
+            }
+            appendToken(folded, token);
+            token.setLength(0);
+        }
+        return folded.toString();
+    }
+
+    private static void appendToken(final StringBuilder folded, final StringBuilder token) {
+        int end = token.length();
+        while (end > 0 && token.charAt(end - 1) == '.') {
+            end--;
+        }
+        String word = token.substring(0, end);
+        if (word.length() > 1 && word.charAt(0) == 'v' && Character.isDigit(word.charAt(1))) {
+            word = word.substring(1);
+        }
+        if (word.isEmpty() || "the".equals(word) || "version".equals(word) || "v".equals(word)) {
+            return;
+        }
+        if ("licence".equals(word)) {
+            word = "license";
+        }
+        if (folded.length() > 0) {
+            folded.append(' ');
+        }
+        folded.append(word);
+    }
+
+    /**
+     * Lazy holder of the default normalizer.
+     */
+    private static class DefaultHolder {
+        private static final SpdxNormalizer INSTANCE = load();
+
+        private static SpdxNormalizer load() {
+            URL resource = SpdxNormalizer.class.getResource(INDEX_RESOURCE);
+            if (resource == null) {
+                throw new IllegalStateException("Missing SPDX license index " + INDEX_RESOURCE);
+            }
+            try {
+                return new SpdxNormalizer(SpdxIndex.open(resource));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read the SPDX license index: " + e.getMessage(), e);
+            }
+        }
+    }
+}
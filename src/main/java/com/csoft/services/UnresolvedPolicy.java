@@ -0,0 +1,42 @@
+package com.csoft.services;
+
+import java.util.Locale;
+
+/**
+ * Policies deciding how an audit handles the artifacts whose metadata cannot
+ * be built, e.g. because of a broken third-party POM.
+ */
+public enum UnresolvedPolicy {
+
+    /**
+     * Aborts the audit at the first artifact which cannot be resolved.
+     */
+    FAIL_FAST,
+    /**
+     * Completes the audit, reporting the unresolved artifacts as warnings.
+     */
+    WARN,
+    /**
+     * Completes the audit and writes the reports, then fails the build when
+     * any artifact could not be resolved.
+     */
+    FAIL_BUILD;
+
+    /**
+     * Parses a policy name as given in the plugin configuration, ignoring
+     * case and accepting dashes in place of underscores.
+     *
+     * @param name The policy name, e.g. 'fail-fast'.
+     * @return the matching policy.
+     * @throws IllegalArgumentException When the name matches no policy.
+     */
+    public static UnresolvedPolicy fromName(final String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (UnresolvedPolicy policy : values()) {
+            if (policy.name().equals(normalized)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown unresolved policy '" + name + "'");
+    }
+}
@@ -0,0 +1,87 @@
+package com.csoft.utils;
+
+import java.util.Objects;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Immutable key identifying an {@link Artifact} by groupId, artifactId,
+ * version and scope, i.e. the coordinates of its GAV label.
+ * <p>
+ * The hash code is computed once at construction time and the GAV label is
+ * built at most once, on first use, so that keys are cheap to use in hash
+ * maps and to turn into the labels of the LicenseScan output.
+ */
+public final class ArtifactKey {
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final String scope;
+    private final int hash;
+    private String label;
+
+    public ArtifactKey(final String groupId,
+                       final String artifactId,
+                       final String version,
+                       final String scope) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.scope = scope;
+        this.hash = Objects.hash(groupId, artifactId, version, scope);
+    }
+
+    /**
+     * Builds the key of an {@link Artifact}.
+     *
+     * @param artifact The artifact.
+     * @return The artifact key.
+     */
+    public static ArtifactKey of(final Artifact artifact) {
+        return new ArtifactKey(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getVersion(), artifact.getScope());
+    }
+
+    /**
+     * Returns the GAV label of the artifact, in the same form as
+     * {@link ArtifactUtils#getGavLabel(Artifact)}.
+     *
+     * @return The GAV label.
+     */
+    public String getLabel() {
+        // benign race: concurrent callers build equal labels
+        String result = label;
+        if (result == null) {
+            result = ArtifactUtils.getGavLabel(groupId, artifactId, version, scope);
+            label = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArtifactKey)) {
+            return false;
+        }
+        ArtifactKey other = (ArtifactKey) o;
+        return hash == other.hash
+                && Objects.equals(groupId, other.groupId)
+                && Objects.equals(artifactId, other.artifactId)
+                && Objects.equals(version, other.version)
+                && Objects.equals(scope, other.scope);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
@@ -1,8 +1,8 @@
 package com.csoft.utils;
 
-import java.util.HashSet;
+import java.io.File;
+import java.util.Collections;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.project.MavenProject;
@@ -12,6 +12,19 @@ public class ArtifactUtils {
     private ArtifactUtils() {
     }
 
+    /**
+     * Classifies the dependencies of a input {@link MavenProject} into Direct,
+     * Transitive and Cumulative sets, walking the project artifacts only once.
+     *
+     * @param mavenProject The input project.
+     * @return the classified dependencies.
+     */
+    public static ClassifiedDependencies classifyDependencies(final MavenProject mavenProject) {
+        //NOTE: MavenProject::getDependencyArtifacts automatically returns also diverse scopes such as 'test'.
+        //We keep exclusively 'runtime' and 'compile' as Direct dependencies.
+        return new ClassifiedDependencies(mavenProject.getDependencyArtifacts(), mavenProject.getArtifacts());
+    }
+
     /**
      * Extracts the set of Direct {@link Artifact} dependencies from a input {@link MavenProject}
      *
@@ -19,12 +32,19 @@ public class ArtifactUtils {
      * @return Set of dependencies.
      */
     public static Set<Artifact> getDirectDependencies(final MavenProject mavenProject) {
-        //NOTE: MavenProject::getDependencyArtifacts automatically returns also diverse scopes such as 'test'.
-        //We filter exclusively on 'runtime' and 'compile'.
-        return mavenProject.getDependencyArtifacts().stream()
-                .filter(artifact -> (artifact.getScope().equalsIgnoreCase("runtime") ||
-                        artifact.getScope().equalsIgnoreCase("compile")))
-                .collect(Collectors.toSet());
+        return new ClassifiedDependencies(mavenProject.getDependencyArtifacts(),
+                Collections.<Artifact>emptySet()).getDirect();
+    }
+
+    /**
+     * Computes the shortest inclusion path of every dependency of a input
+     * {@link MavenProject}, from the dependency graph already resolved by Maven.
+     *
+     * @param mavenProject The input project.
+     * @return the dependency paths.
+     */
+    public static DependencyPaths dependencyPaths(final MavenProject mavenProject) {
+        return new DependencyPaths(mavenProject.getArtifacts());
     }
 
     /**
@@ -35,11 +55,7 @@ public class ArtifactUtils {
      * @return Set of dependencies.
      */
     public static Set<Artifact> getTransitiveDependencies(final MavenProject mavenProject) {
-        //NOTE: we have to wrap MavenProject::getArtifacts and ::getDependencyArtifacts output sets into
-        //an HashSet to make sure that we Set::removeAll behaves predictibly.
-        Set<Artifact> transitiveDependencies = new HashSet<>(mavenProject.getArtifacts());
-        transitiveDependencies.removeAll(new HashSet<>(getDirectDependencies(mavenProject)));
-        return transitiveDependencies;
+        return classifyDependencies(mavenProject).getTransitive();
     }
 
     /**
@@ -50,11 +66,70 @@ public class ArtifactUtils {
      * @return Set of dependencies.
      */
     public static Set<Artifact> getCumulativeDependencies(final MavenProject mavenProject) {
-        //NOTE: we have to wrap MavenProject::getArtifacts and ::getDependencyArtifacts output sets into
-        //an HashSet to make sure that we Set::addAll behaves predictibly.
-        Set<Artifact> cumulativeDependencies = new HashSet<>(mavenProject.getArtifacts());
-        cumulativeDependencies.addAll(new HashSet<>(getDirectDependencies(mavenProject)));
-        return cumulativeDependencies;
+        return classifyDependencies(mavenProject).getCumulative();
+    }
+
+    /**
+     * Builds the label of an {@link Artifact} used throughout the LicenseScan
+     * output, in the form groupId:artifactId:version:scope.
+     *
+     * @param artifact The artifact.
+     * @return The GAV label.
+     */
+    public static String getGavLabel(final Artifact artifact) {
+        return getGavLabel(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getScope());
+    }
+
+    /**
+     * Builds the GAV label of a set of Maven coordinates, in the form
+     * groupId:artifactId:version:scope.
+     *
+     * @param groupId    The groupId.
+     * @param artifactId The artifactId.
+     * @param version    The version.
+     * @param scope      The scope.
+     * @return The GAV label.
+     * @see ArtifactKey
+     */
+    public static String getGavLabel(final String groupId,
+                                     final String artifactId,
+                                     final String version,
+                                     final String scope) {
+        return groupId + ":" + artifactId + ":" + version + ":" + scope;
+    }
+
+    /**
+     * Locates the POM file of an {@link Artifact} in a local repository with
+     * the default Maven layout. The file is not guaranteed to exist.
+     *
+     * @param localRepositoryDir Base directory of the local repository.
+     * @param artifact           The artifact.
+     * @return The expected location of the POM file.
+     */
+    public static File getLocalPomFile(final File localRepositoryDir, final Artifact artifact) {
+        String baseVersion = artifact.getBaseVersion() != null ? artifact.getBaseVersion() : artifact.getVersion();
+        return getLocalPomFile(localRepositoryDir, artifact.getGroupId(), artifact.getArtifactId(), baseVersion);
+    }
+
+    /**
+     * Locates the POM file of a set of Maven coordinates in a local repository
+     * with the default Maven layout. The file is not guaranteed to exist.
+     *
+     * @param localRepositoryDir Base directory of the local repository.
+     * @param groupId            The groupId.
+     * @param artifactId         The artifactId.
+     * @param version            The (base) version.
+     * @return The expected location of the POM file.
+     */
+    public static File getLocalPomFile(final File localRepositoryDir,
+                                       final String groupId,
+                                       final String artifactId,
+                                       final String version) {
+        String path = groupId.replace('.', File.separatorChar)
+                + File.separator + artifactId
+                + File.separator + version
+                + File.separator + artifactId + "-" + version + ".pom";
+        return new File(localRepositoryDir, path);
     }
 
 }
@@ -0,0 +1,189 @@
+package com.csoft.utils;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Read-only classification of the dependencies of a Maven project, computed
+ * in a single pass over the project artifacts.
+ * <p>
+ * Only the Direct set is copied. The Transitive set is a view over the project
+ * artifacts excluding the Direct ones, and the Cumulative set is a view over
+ * the two disjoint sets, so the three views share storage.
+ */
+public class ClassifiedDependencies {
+
+    private final Set<Artifact> direct;
+    private final Set<Artifact> transitive;
+    private final Set<Artifact> cumulative;
+
+    ClassifiedDependencies(final Collection<Artifact> dependencyArtifacts,
+                           final Collection<Artifact> artifacts) {
+        Set<Artifact> directSet = new LinkedHashSet<>(capacityFor(dependencyArtifacts.size()));
+        for (Artifact artifact : dependencyArtifacts) {
+            if (isCompileOrRuntime(artifact)) {
+                directSet.add(artifact);
+            }
+        }
+        this.direct = Collections.unmodifiableSet(directSet);
+        this.transitive = new Difference(artifacts, direct);
+        this.cumulative = new DisjointUnion(direct, transitive);
+    }
+
+    /**
+     * Returns the Direct dependencies with 'compile' or 'runtime' scope.
+     *
+     * @return Set of dependencies.
+     */
+    public Set<Artifact> getDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns the dependencies of the project which are not Direct.
+     *
+     * @return Set of dependencies.
+     */
+    public Set<Artifact> getTransitive() {
+        return transitive;
+    }
+
+    /**
+     * Returns all the dependencies of the project (Direct + Transitive).
+     *
+     * @return Set of dependencies.
+     */
+    public Set<Artifact> getCumulative() {
+        return cumulative;
+    }
+
+    static boolean isCompileOrRuntime(final Artifact artifact) {
+        String scope = artifact.getScope();
+        return "compile".equalsIgnoreCase(scope) || "runtime".equalsIgnoreCase(scope);
+    }
+
+    private static int capacityFor(final int size) {
+        return Math.max((int) (size / 0.75f) + 1, 16);
+    }
+
+    /**
+     * Internal read-only view over the artifacts of a collection which are not
+     * in a given set. The size is computed once, walking the collection.
+     */
+    private static class Difference extends AbstractSet<Artifact> {
+
+        private final Collection<Artifact> artifacts;
+        private final Set<Artifact> excluded;
+        private final int size;
+
+        Difference(final Collection<Artifact> artifacts, final Set<Artifact> excluded) {
+            this.artifacts = artifacts;
+            this.excluded = excluded;
+            int count = 0;
+            for (Artifact artifact : artifacts) {
+                if (!excluded.contains(artifact)) {
+                    count++;
+                }
+            }
+            this.size = count;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return !excluded.contains(o) && artifacts.contains(o);
+        }
+
+        @Override
+        public Iterator<Artifact> iterator() {
+            return new Iterator<Artifact>() {
+                private final Iterator<Artifact> iterator = artifacts.iterator();
+                private Artifact next = advance();
+
+                private Artifact advance() {
+                    while (iterator.hasNext()) {
+                        Artifact artifact = iterator.next();
+                        if (!excluded.contains(artifact)) {
+                            return artifact;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Artifact next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Artifact current = next;
+                    next = advance();
+                    return current;
+                }
+            };
+        }
+    }
+
+    /**
+     * Internal read-only view over two disjoint sets.
+     */
+    private static class DisjointUnion extends AbstractSet<Artifact> {
+
+        private final Set<Artifact> first;
+        private final Set<Artifact> second;
+
+        DisjointUnion(final Set<Artifact> first, final Set<Artifact> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int size() {
+            return first.size() + second.size();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return first.contains(o) || second.contains(o);
+        }
+
+        @Override
+        public Iterator<Artifact> iterator() {
+            return new Iterator<Artifact>() {
+                private final Iterator<Artifact> firstIterator = first.iterator();
+                private final Iterator<Artifact> secondIterator = second.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return firstIterator.hasNext() || secondIterator.hasNext();
+                }
+
+                @Override
+                public Artifact next() {
+                    if (firstIterator.hasNext()) {
+                        return firstIterator.next();
+                    }
+                    if (secondIterator.hasNext()) {
+                        return secondIterator.next();
+                    }
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.csoft.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Shortest inclusion paths of the dependencies of a Maven project, telling
+ * which Direct dependency pulled each Transitive dependency in.
+ * <p>
+ * The dependency graph is rebuilt from the dependency trails recorded by the
+ * Maven resolution on each artifact, then walked once breadth-first from the
+ * project, so that every artifact gets its shortest path in O(V+E) without
+ * resolving anything again.
+ */
+public class DependencyPaths {
+
+    // artifact id (as found in the trails) -> GAV label
+    private final Map<String, String> labels = new HashMap<>();
+    // GAV label -> artifact id
+    private final Map<String, String> ids = new HashMap<>();
+    // artifact id -> artifact id of its parent on the shortest path, null for the Direct dependencies
+    private final Map<String, String> parents = new HashMap<>();
+
+    DependencyPaths(final Collection<Artifact> artifacts) {
+        Map<String, Set<String>> children = new HashMap<>();
+        Set<String> roots = new LinkedHashSet<>();
+        for (Artifact artifact : artifacts) {
+            String id = artifact.getId();
+            if (id == null) {
+                continue;
+            }
+            String gavLabel = ArtifactUtils.getGavLabel(artifact);
+            labels.put(id, gavLabel);
+            ids.put(gavLabel, id);
+            List<String> trail = artifact.getDependencyTrail();
+            if (trail == null || trail.size() < 2) {
+                continue;
+            }
+            roots.add(trail.get(0));
+            for (int i = 1; i < trail.size(); i++) {
+                children.computeIfAbsent(trail.get(i - 1), key -> new LinkedHashSet<>()).add(trail.get(i));
+            }
+        }
+
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> visited = new LinkedHashSet<>(roots);
+        for (String root : roots) {
+            for (String child : children.getOrDefault(root, Collections.<String>emptySet())) {
+                if (visited.add(child)) {
+                    parents.put(child, null);
+                    queue.add(child);
+                }
+            }
+        }
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            for (String child : children.getOrDefault(node, Collections.<String>emptySet())) {
+                if (visited.add(child)) {
+                    parents.put(child, node);
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shortest inclusion path of an artifact.
+     *
+     * @param gavLabel The artifact label.
+     * @return List of labels, from the Direct dependency to the artifact itself;
+     * empty when the path is unknown.
+     */
+    public List<String> getPath(final String gavLabel) {
+        String id = ids.get(gavLabel);
+        if (id == null || !parents.containsKey(id)) {
+            return Collections.emptyList();
+        }
+        List<String> path = new ArrayList<>();
+        for (String node = id; node != null; node = parents.get(node)) {
+            // intermediate artifacts outside the audit (e.g. filtered scopes) keep their trail id
+            path.add(labels.getOrDefault(node, node));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the inclusion paths of the Transitive artifacts among the input
+     * ones, i.e. the artifacts with at least one intermediate dependency.
+     *
+     * @param gavLabels The artifact labels.
+     * @return Map of type {key: artifactGAVLabel, value: listOf[labels from the Direct dependency]}
+     */
+    public Map<String, List<String>> getTransitivePaths(final Collection<String> gavLabels) {
+        Map<String, List<String>> paths = new LinkedHashMap<>();
+        for (String gavLabel : gavLabels) {
+            List<String> path = getPath(gavLabel);
+            if (path.size() > 1) {
+                paths.put(gavLabel, path);
+            }
+        }
+        return paths;
+    }
+}
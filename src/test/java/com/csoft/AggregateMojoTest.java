@@ -0,0 +1,112 @@
+package com.csoft;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.takari.maven.testing.TestMavenRuntime5;
+import io.takari.maven.testing.TestResources5;
+import mocks.TestLog;
+import mocks.TestProjectBuilder;
+import mocks.TestUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AggregateMojoTest {
+    private final String goodLicense = "Happy Freedom License v1";
+    private final String badLicense = "Bad Banned License v2";
+
+    @RegisterExtension
+    public TestResources5 testResources = new TestResources5();
+
+    @RegisterExtension
+    public final TestMavenRuntime5 maven = new TestMavenRuntime5();
+
+    private TestLog log;
+    private TestProjectBuilder builder;
+    private MavenProject root;
+
+    @BeforeEach
+    public void beforeEach() {
+        builder = new TestProjectBuilder();
+    }
+
+    @Test
+    public void test_WHEN_modulesShareAnArtifact_THEN_artifactIsBuiltOnceAndReportListsBothModules() throws Exception {
+        Set<Artifact> shared = builder.createArtifact("acme", "shared", "1",
+                Collections.singleton(goodLicense));
+        AggregateMojo mojo = configure(
+                module("module-a", shared, builder.createArtifact("acme", "only-a", "1",
+                        Collections.singleton(goodLicense))),
+                module("module-b", shared, Collections.<Artifact>emptySet()));
+        mojo.execute();
+
+        assertEquals(1, builder.getBuildCount(shared.iterator().next()));
+        log.assertInfo(" - module com.acme.test.co:module-a:1");
+        log.assertInfo(" - module com.acme.test.co:module-b:1");
+        JsonNode modulesMap = new ObjectMapper().readTree(new File(root.getBuild().getDirectory(),
+                        "license-scan-results/license-scan-report.json"))
+                .get("licenseScanResults").get("modulesMap");
+        assertThat(modulesMap.get("acme:shared:1:compile").size(), is(2));
+        assertThat(modulesMap.get("acme:only-a:1:compile").size(), is(1));
+    }
+
+    @Test
+    public void test_WHEN_artifactForbiddenInOneModule_THEN_buildFails() {
+        AggregateMojo mojo = configure(
+                module("module-a", builder.createArtifact("acme", "artifact", "1",
+                        Collections.singleton(goodLicense)), Collections.<Artifact>emptySet()),
+                module("module-b", Collections.<Artifact>emptySet(), builder.createArtifact("acme", "bad", "1",
+                        Collections.singleton(badLicense))));
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        assertEquals("Failing build", e.getMessage());
+        log.assertWarning("Found 1 violations for license 'Bad Banned License v2':");
+        log.assertWarning(" - acme:bad:1:compile");
+    }
+
+    private static MavenProject module(String artifactId,
+                                       Set<Artifact> primaryArtifacts,
+                                       Set<Artifact> transientArtifacts) {
+        MavenProject module = new MavenProject();
+        module.setGroupId("com.acme.test.co");
+        module.setArtifactId(artifactId);
+        module.setVersion("1");
+        module.setArtifacts(TestUtils.union(primaryArtifacts, transientArtifacts));
+        module.setDependencyArtifacts(primaryArtifacts);
+        return module;
+    }
+
+    private AggregateMojo configure(MavenProject... modules) {
+        try {
+            root = maven.readMavenProject(testResources.getBasedir("basic"));
+            root.setArtifacts(Collections.<Artifact>emptySet());
+            root.setDependencyArtifacts(Collections.<Artifact>emptySet());
+            MavenSession session = maven.newMavenSession(root);
+            session.setProjects(TestUtils.concat(root, Arrays.asList(modules)));
+            log = new TestLog();
+            AggregateMojo mojo = new AggregateMojo(root, session, builder, log);
+            mojo.setPrintLicenses(true);
+            mojo.setFailBuildOnViolation(true);
+            mojo.setForbiddenLicenses(Collections.singletonList(badLicense));
+            return mojo;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -37,6 +37,28 @@ public class IntegrationTest {
                 .assertLogText("[ERROR]");
     }
 
+    @MavenPluginTest
+    public void test_Aggregate_Success() throws Exception {
+        File basedir = resources.getBasedir("integration_aggregate");
+        System.out.println(basedir.getAbsolutePath());
+        maven.forProject(basedir)
+                .execute("licensescan:audit-aggregate")
+                .assertErrorFreeLog()
+                .assertLogText("LicenseScan: Reactor Modules")
+                .assertLogText(" - module com.acme.test.co:module-b:1");
+    }
+
+    @MavenPluginTest
+    public void test_Success_With_Batch_Resolution() throws Exception {
+        File basedir = resources.getBasedir("integration_pass");
+        System.out.println(basedir.getAbsolutePath());
+        maven.forProject(basedir)
+                .withCliOptions("-DlightweightResolution=false", "-DuseCache=false")
+                .execute("licensescan:audit")
+                .assertErrorFreeLog()
+                .assertLogText("0 POMs read, 5 projects built)");
+    }
+
     //To be removed in next major version, when non-inclusive terms are removed
     @MavenPluginTest
     public void test_Success_With_Noninclusive_Term() throws Exception {
@@ -1,5 +1,7 @@
 package com.csoft;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.takari.maven.testing.TestMavenRuntime5;
 import io.takari.maven.testing.TestResources5;
 import mocks.TestLog;
@@ -8,18 +10,22 @@ import mocks.TestUtils;
 import org.apache.commons.compress.utils.Sets;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MainMojoTest {
     private final String goodLicense = "Happy Freedom License v1";
@@ -213,6 +219,320 @@ public class MainMojoTest {
         log.assertNoWarning("Found 1 violations for license 'Bad Banned License v2':");
     }
 
+    @Test
+    public void test_WHEN_auditRuns_THEN_eachArtifactIsBuiltOnlyOnce() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        Set<Artifact> transitive = builder.createArtifact("acme", "artifact", "1",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(direct, transitive);
+        mojo.execute();
+        assertEquals(1, builder.getBuildCount(direct.iterator().next()));
+        assertEquals(1, builder.getBuildCount(transitive.iterator().next()));
+    }
+
+    @Test
+    public void test_WHEN_resolvingWithMultipleThreads_THEN_violationsAreReportedAsInSequentialMode() {
+        MainMojo mojo = configure(
+                TestUtils.union(
+                        builder.createArtifact("acme", "artifact", "1",
+                                Collections.singleton(badLicense)),
+                        builder.createArtifact("acme", "main", "2",
+                                Collections.singleton(goodLicense))),
+                TestUtils.union(
+                        builder.createArtifact("acme", "depArtifact", "1",
+                                Collections.singleton(badLicense)),
+                        builder.createArtifact("acme", "else", "3",
+                                Collections.singleton(goodLicense))));
+        mojo.setThreads(4);
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        assertEquals("Failing build", e.getMessage());
+        log.assertWarning("Found 2 violations for license 'Bad Banned License v2':");
+        log.assertWarning(" - acme:artifact:1:compile");
+        log.assertWarning(" - acme:depArtifact:1:compile");
+    }
+
+    @Test
+    public void test_WHEN_unknownReportFormatConfigured_THEN_executionFails() {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "artifact", "1",
+                        Collections.singleton(goodLicense)), empty);
+        mojo.setReportFormats(Arrays.asList("json", "pdf"));
+        Exception e = assertThrows(
+                MojoExecutionException.class,
+                mojo::execute
+        );
+        assertEquals("Unknown report format 'pdf', supported values are 'json', 'html' and 'none'", e.getMessage());
+    }
+
+    @Test
+    public void test_WHEN_incrementalAndNothingChanged_THEN_previousResultsAreReused() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(direct, empty);
+        mojo.setIncremental(true);
+        mojo.execute();
+
+        MainMojo secondMojo = rerun(mojo);
+        secondMojo.execute();
+        assertEquals(1, builder.getBuildCount(direct.iterator().next()));
+        log.assertInfo("Dependencies and configuration unchanged since the previous audit, reusing its results");
+        log.assertInfo(" - artifact acme:main:2:compile");
+        log.assertInfo("   with license: " + goodLicense);
+
+        MainMojo reconfiguredMojo = rerun(mojo);
+        reconfiguredMojo.setForbiddenLicenses(Collections.singletonList(goodLicense));
+        assertThrows(MojoFailureException.class, reconfiguredMojo::execute);
+        assertEquals(2, builder.getBuildCount(direct.iterator().next()));
+    }
+
+    @Test
+    public void test_WHEN_incrementalAndResolutionOptionChanged_THEN_auditRunsAgain() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(direct, empty);
+        mojo.setIncremental(true);
+        mojo.execute();
+
+        MainMojo batchMojo = rerun(mojo);
+        batchMojo.setBatchResolution(true);
+        batchMojo.execute();
+        assertEquals(2, builder.getBuildCount(direct.iterator().next()));
+    }
+
+    @Test
+    public void test_WHEN_incrementalAndReportsDeleted_THEN_auditRunsAgain() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(direct, empty);
+        mojo.setIncremental(true);
+        mojo.execute();
+        File htmlReport = new File(mojo.project.getBuild().getDirectory(), "license-scan-results/index.html");
+        assertTrue(htmlReport.delete());
+
+        MainMojo secondMojo = rerun(mojo);
+        secondMojo.execute();
+        assertEquals(2, builder.getBuildCount(direct.iterator().next()));
+        log.assertInfo("Reports of the previous audit missing, running a full audit");
+        assertTrue(htmlReport.isFile());
+    }
+
+    @Test
+    public void test_WHEN_incrementalAndPluginVersionChanged_THEN_auditRunsAgain() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(direct, empty);
+        mojo.setIncremental(true);
+        mojo.setPlugin(pluginDescriptor("3.2"));
+        mojo.execute();
+
+        MainMojo sameVersionMojo = rerun(mojo);
+        sameVersionMojo.setPlugin(pluginDescriptor("3.2"));
+        sameVersionMojo.execute();
+        assertEquals(1, builder.getBuildCount(direct.iterator().next()));
+
+        MainMojo upgradedMojo = rerun(mojo);
+        upgradedMojo.setPlugin(pluginDescriptor("3.3"));
+        upgradedMojo.execute();
+        assertEquals(2, builder.getBuildCount(direct.iterator().next()));
+    }
+
+    @Test
+    public void test_WHEN_incrementalAndPreviousAuditHadViolations_THEN_buildStillFails() {
+        Set<Artifact> direct = builder.createArtifact("acme", "artifact", "1",
+                Collections.singleton(badLicense));
+        MainMojo mojo = configure(direct, empty);
+        mojo.setIncremental(true);
+        assertThrows(MojoFailureException.class, mojo::execute);
+
+        MainMojo secondMojo = rerun(mojo);
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                secondMojo::execute
+        );
+        assertEquals("Failing build", e.getMessage());
+        assertEquals(1, builder.getBuildCount(direct.iterator().next()));
+        log.assertWarning("Found 1 violations for license 'Bad Banned License v2':");
+        log.assertWarning(" - acme:artifact:1:compile");
+    }
+
+    @Test
+    public void test_WHEN_writeMetricsIsOn_THEN_metricsAreLoggedAndWritten() throws Exception {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(goodLicense)),
+                builder.createArtifact("acme", "artifact", "1",
+                        Collections.singleton(goodLicense)));
+        mojo.setWriteMetrics(true);
+        mojo.execute();
+        log.assertInfo("ms, artifacts 2 resolved (0 license cache hits, 0 reactor cache hits, 0 POMs read, 2 projects built)");
+        log.assertDebug(" - artifacts      : 2 resolved (0 license cache hits, 0 reactor cache hits, 0 POMs read, 2 projects built)");
+        log.assertDebug("--------------< LicenseScan: Slowest Artifacts >--------------");
+        log.assertNoInfo("--------------< LicenseScan: Slowest Artifacts >--------------");
+        JsonNode counters = new ObjectMapper().readTree(new File(mojo.project.getBuild().getDirectory(),
+                        "license-scan-results/license-scan-metrics.json"))
+                .get("counters");
+        assertEquals(2, counters.get("artifactsResolved").asInt());
+        assertEquals(2, counters.get("projectsBuilt").asInt());
+    }
+
+    @Test
+    public void test_WHEN_artifactCannotBeBuilt_THEN_auditFailsFastByDefault() {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(goodLicense)),
+                builder.createBrokenArtifact("acme", "broken", "1"));
+        Exception e = assertThrows(
+                RuntimeException.class,
+                mojo::execute
+        );
+        assertEquals("Error while building project acme:broken:1. Giving up...", e.getMessage());
+    }
+
+    @Test
+    public void test_WHEN_artifactCannotBeBuiltWithWarnPolicy_THEN_auditCompletesAndReportsIt() throws Exception {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(goodLicense)),
+                TestUtils.union(
+                        builder.createBrokenArtifact("acme", "broken", "1"),
+                        builder.createArtifact("acme", "artifact", "1",
+                                Collections.singleton(goodLicense))));
+        mojo.setUnresolvedPolicy("warn");
+        mojo.execute();
+        log.assertInfo(" - artifact acme:artifact:1:compile");
+        log.assertWarning(" - artifact acme:broken:1:compile");
+        log.assertWarning("   reason: Broken POM for project acme:broken:1");
+        JsonNode results = new ObjectMapper().readTree(new File(mojo.project.getBuild().getDirectory(),
+                        "license-scan-results/license-scan-report.json"))
+                .get("licenseScanResults");
+        assertEquals("Broken POM for project acme:broken:1", results.get("unresolvedMap").get("acme:broken:1:compile").asText());
+        assertEquals(false, results.get("licenseMap").has("acme:broken:1:compile"));
+    }
+
+    @Test
+    public void test_WHEN_artifactCannotBeBuiltWithFailBuildPolicy_THEN_buildFailsAfterTheReports() {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(goodLicense)),
+                builder.createBrokenArtifact("acme", "broken", "1"));
+        mojo.setUnresolvedPolicy("FAIL_BUILD");
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        assertEquals("Failing build: 1 artifacts could not be resolved", e.getMessage());
+        assertEquals(true, new File(mojo.project.getBuild().getDirectory(),
+                "license-scan-results/index.html").isFile());
+    }
+
+    @Test
+    public void test_WHEN_unknownUnresolvedPolicyConfigured_THEN_executionFails() {
+        MainMojo mojo = configure(empty, empty);
+        mojo.setUnresolvedPolicy("ignore");
+        Exception e = assertThrows(
+                MojoExecutionException.class,
+                mojo::execute
+        );
+        assertEquals("Unknown unresolved policy 'ignore', supported values are 'fail-fast', 'warn' and 'fail-build'",
+                e.getMessage());
+    }
+
+    @Test
+    public void test_WHEN_spdxMatchingAndLicenseAliasForbidden_THEN_buildFails() throws Exception {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "artifact", "1",
+                        Collections.singleton("The Apache Software License, Version 2.0")),
+                builder.createArtifact("acme", "else", "1",
+                        Collections.singleton("MIT License")));
+        mojo.setForbiddenLicenses(Collections.singletonList("Apache-2.0"));
+        mojo.execute();
+        log.assertNoWarning("Found 1 violations for license 'Apache-2.0':");
+
+        MainMojo spdxMojo = configure(mojo.project.getDependencyArtifacts(), Collections.<Artifact>emptySet());
+        spdxMojo.setForbiddenLicenses(Collections.singletonList("Apache-2.0"));
+        spdxMojo.setSpdxMatching(true);
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                spdxMojo::execute
+        );
+        assertEquals("Failing build", e.getMessage());
+        log.assertWarning("Found 1 violations for license 'Apache-2.0':");
+        log.assertWarning(" - acme:artifact:1:compile");
+    }
+
+    @Test
+    public void test_WHEN_transitiveArtifactForbidden_THEN_itsDependencyPathIsReported() throws Exception {
+        Set<Artifact> direct = builder.createArtifact("acme", "main", "2",
+                Collections.singleton(goodLicense));
+        Set<Artifact> transitive = builder.createArtifact("acme", "artifact", "1",
+                Collections.singleton(badLicense));
+        Artifact main = direct.iterator().next();
+        Artifact artifact = transitive.iterator().next();
+        main.setDependencyTrail(Arrays.asList("com.acme.test.co:test-project:jar:1", main.getId()));
+        artifact.setDependencyTrail(Arrays.asList("com.acme.test.co:test-project:jar:1", main.getId(), artifact.getId()));
+        MainMojo mojo = configure(direct, transitive);
+        assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        log.assertWarning(" - acme:artifact:1:compile");
+        log.assertWarning("   via acme:main:2:compile");
+        JsonNode results = new ObjectMapper().readTree(new File(mojo.project.getBuild().getDirectory(),
+                        "license-scan-results/license-scan-report.json"))
+                .get("licenseScanResults");
+        assertEquals("acme:main:2:compile", results.get("pathsMap").get("acme:artifact:1:compile").get(0).asText());
+    }
+
+    @Test
+    public void test_WHEN_failFastOnViolationAndDirectArtifactForbidden_THEN_buildFailsBeforeResolvingTheOthers() throws Exception {
+        Set<Artifact> transitive = builder.createArtifact("acme", "artifact", "1",
+                Collections.singleton(goodLicense));
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(badLicense)),
+                transitive);
+        mojo.setFailFastOnViolation(true);
+        // outputs of a previous audit, which described other dependencies
+        File reportDirectory = new File(mojo.project.getBuild().getDirectory(), "license-scan-results");
+        reportDirectory.mkdirs();
+        for (String output : Arrays.asList("index.html", "license-scan-report.json", "license-scan-fingerprint.json")) {
+            new File(reportDirectory, output).createNewFile();
+        }
+        Exception e = assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        assertEquals("Failing build: forbidden license found for acme:main:2:compile", e.getMessage());
+        log.assertWarning(" - acme:main:2:compile");
+        assertEquals(0, builder.getBuildCount(transitive.iterator().next()));
+        assertEquals(false, new File(reportDirectory, "index.html").exists());
+        assertEquals(false, new File(reportDirectory, "license-scan-report.json").exists());
+        assertEquals(false, new File(reportDirectory, "license-scan-fingerprint.json").exists());
+    }
+
+    @Test
+    public void test_WHEN_failFastReportsIsOn_THEN_partialReportsAreWritten() throws Exception {
+        MainMojo mojo = configure(
+                builder.createArtifact("acme", "main", "2",
+                        Collections.singleton(badLicense)),
+                builder.createArtifact("acme", "artifact", "1",
+                        Collections.singleton(goodLicense)));
+        mojo.setFailFastOnViolation(true);
+        mojo.setFailFastReports(true);
+        assertThrows(
+                MojoFailureException.class,
+                mojo::execute
+        );
+        JsonNode results = new ObjectMapper().readTree(new File(mojo.project.getBuild().getDirectory(),
+                        "license-scan-results/license-scan-report.json"))
+                .get("licenseScanResults");
+        assertEquals(true, results.get("licenseMap").has("acme:main:2:compile"));
+        assertEquals(false, results.get("licenseMap").has("acme:artifact:1:compile"));
+    }
 
     private MainMojo configure(Set<Artifact> primaryArtifacts,
                                Set<Artifact> transientArtifacts) {
@@ -231,4 +551,26 @@ public class MainMojoTest {
             throw new RuntimeException(e);
         }
     }
+
+    private static PluginDescriptor pluginDescriptor(String version) {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId("com.github.carlomorelli");
+        pluginDescriptor.setArtifactId("licensescan-maven-plugin");
+        pluginDescriptor.setVersion(version);
+        return pluginDescriptor;
+    }
+
+    private MainMojo rerun(MainMojo previous) {
+        try {
+            log = new TestLog();
+            MainMojo mainMojo = new MainMojo(previous.project, maven.newMavenSession(previous.project), builder, log);
+            mainMojo.setPrintLicenses(true);
+            mainMojo.setFailBuildOnViolation(true);
+            mainMojo.setForbiddenLicenses(previous.forbiddenLicenses);
+            mainMojo.setIncremental(true);
+            return mainMojo;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.csoft.services;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class AuditFingerprintTest {
+
+    private static final List<String> FORBIDDEN = Arrays.asList("GPL", "regex:AGPL.*");
+    private static final Set<ReportFormat> FORMATS = EnumSet.allOf(ReportFormat.class);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFingerprintDoesNotDependOnArtifactOrder() throws IOException {
+        Artifact first = artifact("acme", "first", "1");
+        Artifact second = artifact("acme", "second", "1");
+        Set<Artifact> direct = Collections.singleton(first);
+        String fingerprint = AuditFingerprint.compute(Arrays.asList(first, second), direct, FORBIDDEN, FORMATS);
+        assertThat(AuditFingerprint.compute(Arrays.asList(second, first), direct, FORBIDDEN, FORMATS), is(fingerprint));
+    }
+
+    @Test
+    public void testFingerprintChangesWithConfiguration() throws IOException {
+        List<Artifact> artifacts = Collections.singletonList(artifact("acme", "first", "1"));
+        Set<Artifact> direct = new HashSet<>(artifacts);
+        String fingerprint = AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS);
+        assertThat(AuditFingerprint.compute(artifacts, direct, Arrays.asList("regex:AGPL.*", "GPL"), FORMATS),
+                is(not(fingerprint)));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, EnumSet.of(ReportFormat.JSON)),
+                is(not(fingerprint)));
+        assertThat(AuditFingerprint.compute(artifacts, Collections.<Artifact>emptySet(), FORBIDDEN, FORMATS),
+                is(not(fingerprint)));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, null,
+                Collections.<String>emptyList()), is(fingerprint));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, null,
+                Collections.singletonList("jarLicenseDetection=true")), is(not(fingerprint)));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, null,
+                Collections.singletonList("lightweightResolution=true")),
+                is(not(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, null,
+                        Collections.singletonList("lightweightResolution=false")))));
+        String released = AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, "3.2",
+                Collections.<String>emptyList());
+        assertThat(released, is(not(fingerprint)));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS, "3.3",
+                Collections.<String>emptyList()), is(not(released)));
+    }
+
+    @Test
+    public void testFingerprintChangesWithSnapshotContent() throws IOException {
+        Artifact snapshot = artifact("acme", "first", "1-SNAPSHOT");
+        Path jar = tempDir.resolve("first-1-SNAPSHOT.jar");
+        Files.write(jar, "first build".getBytes(StandardCharsets.UTF_8));
+        snapshot.setFile(jar.toFile());
+        List<Artifact> artifacts = Collections.singletonList(snapshot);
+        Set<Artifact> direct = new HashSet<>(artifacts);
+        String fingerprint = AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS);
+        Files.write(jar, "second build".getBytes(StandardCharsets.UTF_8));
+        assertThat(AuditFingerprint.compute(artifacts, direct, FORBIDDEN, FORMATS), is(not(fingerprint)));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        assertThat(AuditFingerprint.load(tempDir), is(nullValue()));
+        Map<String, List<String>> violations = Collections.singletonMap("GPL",
+                Collections.singletonList("acme:first:1:compile"));
+        Map<String, List<String>> direct = Collections.singletonMap("acme:first:1:compile",
+                Collections.singletonList("GPL"));
+        new AuditFingerprint("abc", violations, direct, Collections.<String, List<String>>emptyMap()).save(tempDir);
+        AuditFingerprint loaded = AuditFingerprint.load(tempDir);
+        assertThat(loaded.getFingerprint(), is("abc"));
+        assertThat(loaded.getViolationsMap(), is(violations));
+        assertThat(loaded.getDirectLicenses(), is(direct));
+        assertThat(loaded.getTransitiveLicenses(), is(Collections.<String, List<String>>emptyMap()));
+
+        // a fingerprint recorded without the licenses cannot be reused
+        Files.write(tempDir.resolve(AuditFingerprint.FINGERPRINT_FILE_NAME),
+                "{\"fingerprint\": \"abc\", \"violationsMap\": {}}".getBytes(StandardCharsets.UTF_8));
+        assertThat(AuditFingerprint.load(tempDir), is(nullValue()));
+    }
+
+    private static Artifact artifact(String groupId, String artifactId, String version) {
+        return new DefaultArtifact(groupId, artifactId, version, "compile", "jar", null,
+                new DefaultArtifactHandler("jar"));
+    }
+}
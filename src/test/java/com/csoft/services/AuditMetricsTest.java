@@ -0,0 +1,76 @@
+package com.csoft.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class AuditMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPercentile() {
+        List<Long> sorted = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L,
+                11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L);
+        assertThat(AuditMetrics.percentile(sorted, 95), is(19L));
+        assertThat(AuditMetrics.percentile(sorted, 100), is(20L));
+        assertThat(AuditMetrics.percentile(sorted, 0), is(1L));
+        assertThat(AuditMetrics.percentile(Arrays.asList(7L), 95), is(7L));
+    }
+
+    @Test
+    public void testCountersAreIndependent() {
+        AuditMetrics metrics = new AuditMetrics();
+        for (int i = 0; i < 5; i++) {
+            metrics.recordArtifactResolution("acme:artifact" + i + ":1:compile", System.nanoTime(), 0);
+        }
+        metrics.incrementLicenseCacheHits();
+        metrics.incrementReactorCacheHits();
+        metrics.incrementPomsRead();
+        metrics.incrementProjectsBuilt();
+        metrics.incrementProjectsBuilt();
+        assertThat(metrics.getArtifactsResolved(), is(5L));
+        assertThat(metrics.getReactorCacheHits(), is(1L));
+        assertThat(metrics.getProjectsBuilt(), is(2L));
+    }
+
+    @Test
+    public void testGetSlowestResolutions() {
+        AuditMetrics metrics = new AuditMetrics();
+        long now = System.nanoTime();
+        metrics.recordArtifactResolution("acme:fast:1:compile", now, -1);
+        metrics.recordArtifactResolution("acme:slow:1:compile", now - 5_000_000_000L, 4);
+        metrics.recordArtifactResolution("acme:medium:1:compile", now - 1_000_000_000L, 1);
+
+        List<AuditMetrics.ArtifactResolution> slowest = metrics.getSlowestResolutions(2);
+        assertThat(slowest.size(), is(2));
+        assertThat(slowest.get(0).getGavLabel(), is("acme:slow:1:compile"));
+        assertThat(slowest.get(0).getParentDepth(), is(4));
+        assertThat(slowest.get(1).getGavLabel(), is("acme:medium:1:compile"));
+        assertThat(metrics.getSlowestResolutions(10).size(), is(3));
+    }
+
+    @Test
+    public void testSave() throws IOException {
+        AuditMetrics metrics = new AuditMetrics();
+        metrics.recordPhase(AuditMetrics.Phase.RESOLUTION, System.nanoTime());
+        metrics.recordPhase(AuditMetrics.Phase.COLLECTION, System.nanoTime());
+        metrics.recordArtifactResolution("acme:artifact:1:compile", System.nanoTime(), 0);
+        metrics.addRegexEvaluations(3);
+        JsonNode root = new ObjectMapper().readTree(metrics.save(tempDir).toFile());
+        // phases are listed in execution order, whatever the recording order
+        assertThat(root.get("phasesMillis").fieldNames().next(), is("collection"));
+        assertThat(root.get("artifactResolutionMillis").get("count").asInt(), is(1));
+        assertThat(root.get("counters").get("regexEvaluations").asLong(), is(3L));
+    }
+}
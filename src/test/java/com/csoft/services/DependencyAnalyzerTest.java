@@ -0,0 +1,322 @@
+package com.csoft.services;
+
+import com.csoft.utils.ArtifactUtils;
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.License;
+import org.apache.maven.model.building.DefaultModelProblem;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DependencyAnalyzerTest {
+
+    private static final Artifact ARTIFACT1 = new TestArtifact("group1", "artifact1", "1.0", "compile");
+    private static final Artifact ARTIFACT2 = new TestArtifact("group1", "artifact2", "1.0", "compile");
+    private static final Artifact BROKEN = new TestArtifact("group1", "broken", "1.0", "compile");
+
+    @TempDir
+    Path localRepository;
+
+    @Mock
+    private MavenSession session;
+
+    @Mock
+    private ArtifactRepository artifactRepository;
+
+    @Mock
+    private ProjectBuilder projectBuilder;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(session.getLocalRepository()).thenReturn(artifactRepository);
+        when(artifactRepository.getBasedir()).thenReturn(localRepository.toString());
+        when(session.getProjectBuildingRequest()).thenReturn(new DefaultProjectBuildingRequest());
+    }
+
+    @Test
+    public void testResolve_WHEN_batchResolutionIsOn_THEN_buildsThePomsInASingleBatch() throws Exception {
+        File pom1 = writePom(ARTIFACT1);
+        File pom2 = writePom(ARTIFACT2);
+        File brokenPom = writePom(BROKEN);
+        // the batch fails for one POM only: the other results are still used
+        when(projectBuilder.build(anyList(), eq(false), any(ProjectBuildingRequest.class)))
+                .thenThrow(new ProjectBuildingException(Arrays.<ProjectBuildingResult>asList(
+                        new Result(pom1, project("Apache-2.0"), Collections.<ModelProblem>emptyList()),
+                        new Result(pom2, project("MIT"), Collections.<ModelProblem>emptyList()),
+                        new Result(brokenPom, project(), Collections.<ModelProblem>singletonList(
+                                new DefaultModelProblem("Non-resolvable parent POM", ModelProblem.Severity.ERROR,
+                                        null, -1, -1, null))))));
+        when(projectBuilder.build(eq(BROKEN), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(brokenPom, project("EPL-2.0"), Collections.<ModelProblem>emptyList()));
+
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder);
+        dependencyAnalyzer.setBatchResolution(true);
+        ResolutionResult result = dependencyAnalyzer.resolve(Collections.singleton(ARTIFACT1),
+                Arrays.asList(ARTIFACT2, BROKEN));
+
+        assertThat(result.getDirectLicenses().get("group1:artifact1:1.0:compile"), contains("Apache-2.0"));
+        assertThat(result.getTransitiveLicenses().get("group1:artifact2:1.0:compile"), contains("MIT"));
+        assertThat(result.getTransitiveLicenses().get("group1:broken:1.0:compile"), contains("EPL-2.0"));
+        verify(projectBuilder, times(1)).build(eq(Arrays.asList(pom1, pom2, brokenPom)), eq(false),
+                any(ProjectBuildingRequest.class));
+        verify(projectBuilder, never()).build(eq(ARTIFACT1), any(ProjectBuildingRequest.class));
+        verify(projectBuilder, never()).build(eq(ARTIFACT2), any(ProjectBuildingRequest.class));
+    }
+
+    @Test
+    public void testResolve_WHEN_batchResolutionAndThreads_THEN_readsThePomsConcurrentlyAndBatchesTheOthers() throws Exception {
+        Artifact interpolated1 = new TestArtifact("group1", "interpolated1", "1.0", "compile");
+        Artifact interpolated2 = new TestArtifact("group1", "interpolated2", "1.0", "compile");
+        writePom(ARTIFACT1, "MIT");
+        writePom(ARTIFACT2, "Apache-2.0");
+        File pom1 = writePom(interpolated1, "${license.name}");
+        File pom2 = writePom(interpolated2, "${license.name}");
+        when(projectBuilder.build(anyList(), eq(false), any(ProjectBuildingRequest.class)))
+                .thenReturn(Arrays.<ProjectBuildingResult>asList(
+                        new Result(pom1, project("EPL-2.0"), Collections.<ModelProblem>emptyList()),
+                        new Result(pom2, project("BSD-3-Clause"), Collections.<ModelProblem>emptyList())));
+        Set<String> readerThreads = ConcurrentHashMap.newKeySet();
+        PomLicenseReader pomLicenseReader = new PomLicenseReader(localRepository.toFile()) {
+            @Override
+            public PomLicenses read(final Artifact artifact) {
+                readerThreads.add(Thread.currentThread().getName());
+                return super.read(artifact);
+            }
+        };
+
+        AuditMetrics auditMetrics = new AuditMetrics();
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder, 2);
+        dependencyAnalyzer.setBatchResolution(true);
+        dependencyAnalyzer.setPomLicenseReader(pomLicenseReader);
+        dependencyAnalyzer.setAuditMetrics(auditMetrics);
+        ResolutionResult result = dependencyAnalyzer.resolve(Arrays.asList(ARTIFACT1, interpolated1),
+                Arrays.asList(ARTIFACT2, interpolated2));
+
+        assertThat(result.getDirectLicenses().get("group1:artifact1:1.0:compile"), contains("MIT"));
+        assertThat(result.getDirectLicenses().get("group1:interpolated1:1.0:compile"), contains("EPL-2.0"));
+        assertThat(result.getTransitiveLicenses().get("group1:artifact2:1.0:compile"), contains("Apache-2.0"));
+        assertThat(result.getTransitiveLicenses().get("group1:interpolated2:1.0:compile"), contains("BSD-3-Clause"));
+        verify(projectBuilder, times(1)).build(eq(Arrays.asList(pom1, pom2)), eq(false),
+                any(ProjectBuildingRequest.class));
+        verify(projectBuilder, never()).build(any(Artifact.class), any(ProjectBuildingRequest.class));
+        assertThat(readerThreads.isEmpty(), is(false));
+        for (String readerThread : readerThreads) {
+            assertThat(readerThread, startsWith("licensescan-resolver"));
+        }
+        assertThat(auditMetrics.getPomsRead(), is(2L));
+        assertThat(auditMetrics.getProjectsBuilt(), is(2L));
+        assertThat(auditMetrics.getSortedResolutionNanos().size(), is(4));
+    }
+
+    @Test
+    public void testResolve_WHEN_batchResolutionIsOff_THEN_buildsEachArtifact() throws Exception {
+        writePom(ARTIFACT1);
+        writePom(ARTIFACT2);
+        when(projectBuilder.build(any(Artifact.class), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project("MIT"), Collections.<ModelProblem>emptyList()));
+
+        ResolutionResult result = new DependencyAnalyzer(session, projectBuilder)
+                .resolve(Arrays.asList(ARTIFACT1, ARTIFACT2), Collections.<Artifact>emptyList());
+
+        assertThat(result.getDirectLicenses().size(), is(2));
+        verify(projectBuilder, never()).build(anyList(), eq(false), any(ProjectBuildingRequest.class));
+        verify(projectBuilder, times(2)).build(any(Artifact.class), any(ProjectBuildingRequest.class));
+    }
+
+    @Test
+    public void testResolve_WHEN_artifactsResolvedByAnotherModule_THEN_countsReactorCacheHits() throws Exception {
+        when(projectBuilder.build(any(Artifact.class), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project("MIT"), Collections.<ModelProblem>emptyList()));
+        ReactorLicenseCache reactorLicenseCache = new ReactorLicenseCache();
+        DependencyAnalyzer firstModule = new DependencyAnalyzer(session, projectBuilder);
+        firstModule.setReactorLicenseCache(reactorLicenseCache);
+        firstModule.resolve(Collections.singleton(ARTIFACT1), Collections.<Artifact>emptyList());
+
+        AuditMetrics auditMetrics = new AuditMetrics();
+        DependencyAnalyzer secondModule = new DependencyAnalyzer(session, projectBuilder);
+        secondModule.setReactorLicenseCache(reactorLicenseCache);
+        secondModule.setAuditMetrics(auditMetrics);
+        secondModule.resolve(Arrays.asList(ARTIFACT1, ARTIFACT2), Collections.<Artifact>emptyList());
+
+        assertThat(auditMetrics.getArtifactsResolved(), is(2L));
+        assertThat(auditMetrics.getReactorCacheHits(), is(1L));
+        assertThat(auditMetrics.getProjectsBuilt(), is(1L));
+    }
+
+    @Test
+    public void testResolve_WHEN_stopConditionIsMet_THEN_skipsTheRemainingArtifacts() throws Exception {
+        writePom(ARTIFACT1);
+        writePom(ARTIFACT2);
+        when(projectBuilder.build(eq(ARTIFACT1), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project("MIT"), Collections.<ModelProblem>emptyList()));
+        when(projectBuilder.build(eq(ARTIFACT2), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project("GPL-3.0"), Collections.<ModelProblem>emptyList()));
+
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder);
+        dependencyAnalyzer.setBatchResolution(true);
+        ResolutionResult result = dependencyAnalyzer.resolve(Collections.singleton(ARTIFACT1),
+                Arrays.asList(ARTIFACT2, BROKEN), (artifact, licenses) -> licenses.contains("GPL-3.0"));
+
+        assertThat(result.getDirectLicenses().get("group1:artifact1:1.0:compile"), contains("MIT"));
+        assertThat(result.getTransitiveLicenses().get("group1:artifact2:1.0:compile"), contains("GPL-3.0"));
+        assertThat(result.getTransitiveLicenses().containsKey("group1:broken:1.0:compile"), is(false));
+        assertThat(result.getUnresolvedArtifacts().isEmpty(), is(true));
+        verify(projectBuilder, never()).build(anyList(), eq(false), any(ProjectBuildingRequest.class));
+        verify(projectBuilder, never()).build(eq(BROKEN), any(ProjectBuildingRequest.class));
+    }
+
+    @Test
+    public void testResolve_WHEN_stopConditionIsMetByJarLicense_THEN_skipsTheRemainingArtifacts() throws Exception {
+        Artifact unlicensed = new TestArtifact("group1", "unlicensed", "1.0", "compile");
+        unlicensed.setFile(writeJar(unlicensed, "GPL-3.0"));
+        writePom(unlicensed);
+        writePom(ARTIFACT2);
+        when(projectBuilder.build(eq(unlicensed), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project(), Collections.<ModelProblem>emptyList()));
+
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder);
+        dependencyAnalyzer.setJarLicenseDetector(new JarLicenseDetector(1));
+        ResolutionResult result = dependencyAnalyzer.resolve(Collections.singleton(unlicensed),
+                Collections.singleton(ARTIFACT2), (artifact, licenses) -> licenses.contains("GPL-3.0"));
+
+        assertThat(result.getDirectLicenses().get("group1:unlicensed:1.0:compile"), contains("GPL-3.0"));
+        assertThat(result.getTransitiveLicenses().isEmpty(), is(true));
+        verify(projectBuilder, never()).build(eq(ARTIFACT2), any(ProjectBuildingRequest.class));
+    }
+
+    @Test
+    public void testResolve_WHEN_jarLicenseDetectionIsOn_THEN_detectsTheLicensesMissingFromThePom() throws Exception {
+        Artifact unlicensed = new TestArtifact("group1", "unlicensed", "1.0", "compile");
+        Artifact licensed = new TestArtifact("group1", "licensed", "1.0", "compile");
+        unlicensed.setFile(writeJar(unlicensed, "EPL-2.0"));
+        licensed.setFile(writeJar(licensed, "Apache-2.0"));
+        writePom(unlicensed);
+        writePom(licensed);
+        when(projectBuilder.build(eq(unlicensed), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project(), Collections.<ModelProblem>emptyList()));
+        when(projectBuilder.build(eq(licensed), any(ProjectBuildingRequest.class)))
+                .thenReturn(new Result(null, project("MIT"), Collections.<ModelProblem>emptyList()));
+
+        AuditMetrics auditMetrics = new AuditMetrics();
+        DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer(session, projectBuilder);
+        dependencyAnalyzer.setAuditMetrics(auditMetrics);
+        dependencyAnalyzer.setJarLicenseDetector(new JarLicenseDetector(2));
+        ResolutionResult result = dependencyAnalyzer.resolve(Arrays.asList(unlicensed, licensed),
+                Collections.<Artifact>emptyList());
+
+        assertThat(result.getDirectLicenses().get("group1:unlicensed:1.0:compile"), contains("EPL-2.0"));
+        // the POM licenses win over the jar content
+        assertThat(result.getDirectLicenses().get("group1:licensed:1.0:compile"), contains("MIT"));
+        assertThat(auditMetrics.getJarLicenses(), is(1L));
+    }
+
+    private File writeJar(final Artifact artifact, final String bundleLicense) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Bundle-License", bundleLicense);
+        File jarFile = localRepository.resolve(artifact.getArtifactId() + ".jar").toFile();
+        try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jarFile), manifest)) {
+            jarOut.flush();
+        }
+        return jarFile;
+    }
+
+    private File writePom(final Artifact artifact) throws IOException {
+        return writePom(artifact, "<project/>".getBytes());
+    }
+
+    private File writePom(final Artifact artifact, final String licenseName) throws IOException {
+        return writePom(artifact, ("<project><licenses><license><name>" + licenseName
+                + "</name></license></licenses></project>").getBytes());
+    }
+
+    private File writePom(final Artifact artifact, final byte[] content) throws IOException {
+        File pomFile = ArtifactUtils.getLocalPomFile(localRepository.toFile(), artifact).getAbsoluteFile();
+        Files.createDirectories(pomFile.getParentFile().toPath());
+        Files.write(pomFile.toPath(), content);
+        return pomFile;
+    }
+
+    private static MavenProject project(final String... licenseNames) {
+        MavenProject project = new MavenProject();
+        for (String licenseName : licenseNames) {
+            License license = new License();
+            license.setName(licenseName);
+            project.addLicense(license);
+        }
+        return project;
+    }
+
+    private static class Result implements ProjectBuildingResult {
+        private final File pomFile;
+        private final MavenProject project;
+        private final List<ModelProblem> problems;
+
+        Result(final File pomFile, final MavenProject project, final List<ModelProblem> problems) {
+            this.pomFile = pomFile;
+            this.project = project;
+            this.problems = problems;
+        }
+
+        public String getProjectId() {
+            return null;
+        }
+
+        public File getPomFile() {
+            return pomFile;
+        }
+
+        public MavenProject getProject() {
+            return project;
+        }
+
+        public List<ModelProblem> getProblems() {
+            return problems;
+        }
+
+        public DependencyResolutionResult getDependencyResolutionResult() {
+            return null;
+        }
+    }
+}
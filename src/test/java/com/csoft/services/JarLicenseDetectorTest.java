@@ -0,0 +1,145 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+class JarLicenseDetectorTest {
+
+    private static final String APACHE_TEXT = "\n                                 Apache License\n"
+            + "                           Version 2.0, January 2004\n"
+            + "                        http://www.apache.org/licenses/\n";
+    private static final String MIT_TEXT = "Copyright (c) 2020 Acme\n\n"
+            + "Permission is hereby granted, free of charge, to any person obtaining a copy\n"
+            + "of this software and associated documentation files (the \"Software\")...\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDetect_WHEN_bundleLicenseHeader_THEN_headerWinsOverLicenseFiles() throws IOException {
+        File jar = writeJar("bundle.jar",
+                "Apache-2.0;link=\"https://www.apache.org/licenses/LICENSE-2.0\", "
+                        + "\"EPL-2.0;description=Eclipse, with a comma\"",
+                "META-INF/LICENSE", MIT_TEXT);
+        assertThat(new JarLicenseDetector(1).detect(jar), contains("Apache-2.0", "EPL-2.0"));
+    }
+
+    @Test
+    public void testDetect_WHEN_licenseFiles_THEN_identifiesTheirText() throws IOException {
+        File jar = writeJar("files.jar", null,
+                "META-INF/LICENSE.txt", APACHE_TEXT,
+                "META-INF/license.md", MIT_TEXT,
+                "META-INF/NOTICE", MIT_TEXT,
+                "META-INF/licenses/other.txt", "GNU General Public License, version 3",
+                "LICENSE", "GNU General Public License, version 3");
+        assertThat(new JarLicenseDetector(1).detect(jar), contains("Apache License, Version 2.0", "MIT License"));
+    }
+
+    @Test
+    public void testDetect_WHEN_noLicenseOrNotAJar_THEN_returnsEmptyList() throws IOException {
+        JarLicenseDetector detector = new JarLicenseDetector(1);
+        assertThat(detector.detect(writeJar("none.jar", null, "com/acme/Foo.class", "")), is(empty()));
+        Path pom = tempDir.resolve("artifact.pom");
+        Files.write(pom, "<project/>".getBytes(StandardCharsets.UTF_8));
+        assertThat(detector.detect(pom.toFile()), is(empty()));
+        assertThat(detector.detect(tempDir.resolve("missing.jar").toFile()), is(empty()));
+    }
+
+    @Test
+    public void testDetect_WHEN_severalJarsAndThreads_THEN_keepsTheInputOrder() throws IOException {
+        File first = writeJar("first.jar", "MIT", "META-INF/MANIFEST.MF", null);
+        File second = writeJar("second.jar", null, "META-INF/LICENSE", APACHE_TEXT);
+        File third = writeJar("third.jar", null);
+        Map<File, List<String>> licenses = new JarLicenseDetector(4).detect(Arrays.asList(third, first, second));
+        assertThat(licenses.keySet(), contains(third, first, second));
+        assertThat(licenses.get(first), contains("MIT"));
+        assertThat(licenses.get(second), contains("Apache License, Version 2.0"));
+        assertThat(licenses.get(third), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testIdentify_WHEN_textMatchesSeveralLicenses_THEN_returnsTheMostSpecific() {
+        assertThat(JarLicenseDetector.identify("GNU LESSER GENERAL PUBLIC LICENSE\n  Version 2.1, February 1999"),
+                is("GNU Lesser General Public License, Version 2.1"));
+        assertThat(JarLicenseDetector.identify("GNU General Public License, version 2,\nwith the Classpath Exception"),
+                is("GNU General Public License, version 2 with the GNU Classpath Exception"));
+        assertThat(JarLicenseDetector.identify("\n  The Acme Public License\n..."), is("The Acme Public License"));
+        assertThat(JarLicenseDetector.identify("Copyright (c) Acme\nAll rights reserved."), is(nullValue()));
+    }
+
+    @Test
+    public void testIdentify_WHEN_fullLicenseTexts_THEN_ignoresTheLicensesMentionedInTheirBody() throws IOException {
+        // the GPL-3.0 text points to the LGPL, the MPL-2.0 text lists the LGPL-2.1 as a secondary license
+        assertThat(JarLicenseDetector.identify(readLicense("GPL-3.0.txt")),
+                is("GNU General Public License, Version 3"));
+        assertThat(JarLicenseDetector.identify(readLicense("MPL-2.0.txt")), is("Mozilla Public License 2.0"));
+        assertThat(JarLicenseDetector.identify(readLicense("LGPL-2.1.txt")),
+                is("GNU Lesser General Public License, Version 2.1"));
+        assertThat(JarLicenseDetector.identify(APACHE_TEXT), is("Apache License, Version 2.0"));
+        assertThat(JarLicenseDetector.identify(MIT_TEXT), is("MIT License"));
+        assertThat(JarLicenseDetector.identify("Acme Commercial License\n\nUnlike the software released under the"
+                        + "\nGNU Lesser General Public License, version 3, this software cannot be redistributed."),
+                is("Acme Commercial License"));
+        assertThat(JarLicenseDetector.identify("The GNU General Public License (GPL)\n\nVersion 2, June 1991\n\n..."),
+                is("GNU General Public License, Version 2"));
+    }
+
+    private static String readLicense(final String name) throws IOException {
+        try (InputStream in = JarLicenseDetectorTest.class.getResourceAsStream("/licenses/" + name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes a jar with the input Bundle-License header, if not null, and the
+     * input pairs of entry name and text; a null text skips the entry.
+     */
+    private File writeJar(final String name, final String bundleLicense, final String... entries) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (bundleLicense != null) {
+            manifest.getMainAttributes().putValue("Bundle-License", bundleLicense);
+        }
+        Path jar = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i + 1] != null) {
+                    jarOut.putNextEntry(new JarEntry(entries[i]));
+                    jarOut.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                    jarOut.closeEntry();
+                }
+            }
+        }
+        return jar.toFile();
+    }
+}
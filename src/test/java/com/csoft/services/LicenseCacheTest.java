@@ -0,0 +1,118 @@
+package com.csoft.services;
+
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class LicenseCacheTest {
+
+    private static final List<String> LICENSES = Arrays.asList("license1", "license2");
+
+    @Test
+    public void testGet_WHEN_entryWasSavedAndReloaded_THEN_returnsCachedLicenses() throws IOException {
+        Path cacheDir = Files.createTempDirectory(null);
+        File pomFile = createPom(cacheDir);
+        Artifact artifact = new TestArtifact("group1", "artifact1", "1.0", "compile");
+
+        LicenseCache cache = LicenseCache.load(cacheDir);
+        cache.put(artifact, pomFile, LICENSES);
+        cache.save();
+
+        LicenseCache reloaded = LicenseCache.load(cacheDir);
+        assertThat(reloaded.get(artifact, pomFile), contains("license1", "license2"));
+    }
+
+    @Test
+    public void testSave_WHEN_concurrentCachesSave_THEN_keepsTheEntriesOfAll() throws Exception {
+        Path cacheDir = Files.createTempDirectory(null);
+        File pomFile = createPom(cacheDir);
+        int caches = 8;
+        List<LicenseCache> loaded = new ArrayList<>();
+        for (int i = 0; i < caches; i++) {
+            // all loaded before any save, each one seeing an empty cache file
+            LicenseCache cache = LicenseCache.load(cacheDir);
+            cache.put(new TestArtifact("group1", "artifact" + i, "1.0", "compile"), pomFile, LICENSES);
+            loaded.add(cache);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(caches);
+        try {
+            List<Future<Void>> saves = new ArrayList<>();
+            for (LicenseCache cache : loaded) {
+                saves.add(executor.submit(() -> {
+                    cache.save();
+                    return null;
+                }));
+            }
+            for (Future<Void> save : saves) {
+                save.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LicenseCache reloaded = LicenseCache.load(cacheDir);
+        for (int i = 0; i < caches; i++) {
+            Artifact artifact = new TestArtifact("group1", "artifact" + i, "1.0", "compile");
+            assertThat(reloaded.get(artifact, pomFile), contains("license1", "license2"));
+        }
+    }
+
+    @Test
+    public void testGet_WHEN_pomFileChanged_THEN_returnsNull() throws IOException {
+        Path cacheDir = Files.createTempDirectory(null);
+        File pomFile = createPom(cacheDir);
+        Artifact artifact = new TestArtifact("group1", "artifact1", "1.0", "compile");
+
+        LicenseCache cache = LicenseCache.load(cacheDir);
+        cache.put(artifact, pomFile, LICENSES);
+        Files.write(pomFile.toPath(), "<project><licenses/></project>".getBytes());
+
+        assertThat(cache.get(artifact, pomFile), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_WHEN_artifactIsSnapshot_THEN_returnsNull() throws IOException {
+        Path cacheDir = Files.createTempDirectory(null);
+        File pomFile = createPom(cacheDir);
+        Artifact artifact = new TestArtifact("group1", "artifact1", "1.0-SNAPSHOT", "compile");
+
+        LicenseCache cache = LicenseCache.load(cacheDir);
+        cache.put(artifact, pomFile, LICENSES);
+
+        assertThat(cache.get(artifact, pomFile), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_WHEN_pomFileIsMissing_THEN_returnsNull() throws IOException {
+        Path cacheDir = Files.createTempDirectory(null);
+        File pomFile = cacheDir.resolve("missing.pom").toFile();
+        Artifact artifact = new TestArtifact("group1", "artifact1", "1.0", "compile");
+
+        LicenseCache cache = LicenseCache.load(cacheDir);
+        cache.put(artifact, pomFile, LICENSES);
+
+        assertThat(cache.get(artifact, pomFile), is(nullValue()));
+    }
+
+    private static File createPom(final Path dir) throws IOException {
+        Path pom = dir.resolve("artifact1-1.0.pom");
+        Files.write(pom, "<project/>".getBytes());
+        return pom.toFile();
+    }
+}
@@ -0,0 +1,80 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LicenseMatcherTest {
+
+    @Test
+    public void testMatch_WHEN_literalEntryDiffersOnlyInCase_THEN_returnsEntry() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("licenseA", "MIT License"));
+        assertThat(matcher.match("mit license"), is("MIT License"));
+    }
+
+    @Test
+    public void testMatch_WHEN_noEntryMatches_THEN_returnsNull() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("licenseA", "regex:.*GPL.*"));
+        assertThat(matcher.match("Apache License, Version 2.0"), is(nullValue()));
+    }
+
+    @Test
+    public void testMatch_WHEN_regexPrecedesMatchingLiteral_THEN_returnsRegex() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("regex:Apache.*", "Apache License, Version 2.0"));
+        assertThat(matcher.match("Apache License, Version 2.0"), is("regex:Apache.*"));
+    }
+
+    @Test
+    public void testMatch_WHEN_literalPrecedesMatchingRegex_THEN_returnsLiteral() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("Apache License, Version 2.0", "regex:Apache.*"));
+        assertThat(matcher.match("apache license, version 2.0"), is("Apache License, Version 2.0"));
+    }
+
+    @Test
+    public void testMatch_WHEN_severalRegexesMatch_THEN_returnsFirstConfigured() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("regex:.*Version 1.*", "regex:apache.*"));
+        assertThat(matcher.match("APACHE LICENSE, VERSION 1.0"), is("regex:.*Version 1.*"));
+    }
+
+    @Test
+    public void testMatch_WHEN_regexIsXmlEscaped_THEN_returnsEntry() {
+        LicenseMatcher matcher = new LicenseMatcher(
+                Collections.singletonList("regex:.*(?&lt;!\\+\\s?)GNU General Public License.*"));
+        assertThat(matcher.match("GNU General Public License v2"), is("regex:.*(?&lt;!\\+\\s?)GNU General Public License.*"));
+        assertThat(matcher.match("LGPL + GNU General Public License"), is(nullValue()));
+    }
+
+    @Test
+    public void testGetRegexEvaluations_WHEN_literalMatchesFirst_THEN_laterRegexesAreNotEvaluated() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("regex:.*GPL.*", "MIT License", "regex:MIT.*"));
+        matcher.match("MIT License");
+        assertThat(matcher.getRegexEvaluations(), is(1L));
+        matcher.match("Apache License, Version 2.0");
+        assertThat(matcher.getRegexEvaluations(), is(3L));
+    }
+
+    @Test
+    public void testMatch_WHEN_spdxNormalizerAndSameSpdxId_THEN_returnsEntry() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("GPL-3.0-only", "Apache-2.0"),
+                SpdxNormalizer.getDefault());
+        assertThat(matcher.match("The Apache Software License, Version 2.0"), is("Apache-2.0"));
+        assertThat(matcher.match("https://www.apache.org/licenses/LICENSE-2.0.txt"), is("Apache-2.0"));
+        assertThat(matcher.match("GNU General Public License v3.0"), is("GPL-3.0-only"));
+        assertThat(matcher.match("GPL-3.0-or-later"), is(nullValue()));
+        assertThat(new LicenseMatcher(Arrays.asList("Apache-2.0")).match("ASL 2.0"), is(nullValue()));
+    }
+
+    @Test
+    public void testMatch_WHEN_spdxNormalizerAndRegexPrecedesSpdxMatch_THEN_returnsRegex() {
+        LicenseMatcher matcher = new LicenseMatcher(Arrays.asList("MIT", "regex:Apache.*", "Apache 2.0"),
+                SpdxNormalizer.getDefault());
+        assertThat(matcher.match("Apache License, Version 2.0"), is("regex:Apache.*"));
+        assertThat(matcher.match("ASL 2.0"), is("Apache 2.0"));
+        assertThat(matcher.match("The MIT License (MIT)"), is("MIT"));
+    }
+}
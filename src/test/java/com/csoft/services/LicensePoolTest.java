@@ -0,0 +1,41 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LicensePoolTest {
+
+    @Test
+    public void testInternReturnsTheFirstInstanceOfEqualLicenses() {
+        LicensePool pool = new LicensePool();
+        String first = new String("Apache License 2.0");
+        String second = new String("Apache License 2.0");
+        assertThat(pool.intern(first), sameInstance(first));
+        assertThat(pool.intern(second), sameInstance(first));
+        assertThat(pool.intern((String) null), nullValue());
+        assertThat(pool.size(), is(1));
+    }
+
+    @Test
+    public void testInternSharesEqualListsAndTheirElements() {
+        LicensePool pool = new LicensePool();
+        List<String> first = pool.intern(new ArrayList<>(Arrays.asList(new String("MIT"), new String("EPL-2.0"))));
+        List<String> second = pool.intern(Arrays.asList(new String("MIT"), new String("EPL-2.0")));
+        List<String> other = pool.intern(Arrays.asList(new String("MIT")));
+        assertThat(second, sameInstance(first));
+        assertThat(other.get(0), sameInstance(first.get(0)));
+        assertThat(first, is(Arrays.asList("MIT", "EPL-2.0")));
+        assertThat(pool.size(), is(2));
+        assertThrows(UnsupportedOperationException.class, () -> first.add("GPL"));
+    }
+
+}
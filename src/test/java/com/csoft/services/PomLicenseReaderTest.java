@@ -0,0 +1,169 @@
+package com.csoft.services;
+
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class PomLicenseReaderTest {
+
+    private static final String PARENT = "<parent><groupId>org.acme</groupId><artifactId>acme-parent</artifactId><version>7</version></parent>";
+
+    private Path localRepository;
+    private PomLicenseReader reader;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        localRepository = Files.createTempDirectory(null);
+        reader = new PomLicenseReader(localRepository.toFile());
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_pomDeclaresLicenses_THEN_returnsThem() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT
+                + "<licenses><license><name> license1 </name><url>http://l1</url></license>"
+                + "<license><name>license2</name></license></licenses></project>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), contains("license1", "license2"));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_pomHasNoLicenses_THEN_returnsLicensesOfParent() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT + "<licenses/></project>");
+        writePom("org.acme", "acme-parent", "7",
+                "<project><licenses><license><name>parentLicense</name></license></licenses></project>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), contains("parentLicense"));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_noPomInChainHasLicenses_THEN_returnsEmptyList() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "acme-parent", "7", "<project/>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), is(empty()));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_parentPomIsMissing_THEN_returnsNull() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT + "</project>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), is(nullValue()));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_licenseNameIsInterpolated_THEN_returnsNull() throws IOException {
+        writePom("org.acme", "lib", "1.0",
+                "<project><licenses><license><name>${license.name}</name></license></licenses></project>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), is(nullValue()));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_pomIsMalformed_THEN_returnsNull() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project><licenses>");
+
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), is(nullValue()));
+    }
+
+    @Test
+    public void testReadLicenses_WHEN_pomIsMissing_THEN_returnsNull() {
+        assertThat(reader.readLicenses(artifact("lib", "1.0")), is(nullValue()));
+    }
+
+    @Test
+    public void testRead_WHEN_licensesComeFromParent_THEN_returnsParentDepth() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "acme-parent", "7",
+                "<project><licenses><license><name>parentLicense</name></license></licenses></project>");
+
+        assertThat(reader.read(artifact("lib", "1.0")).getParentDepth(), is(1));
+    }
+
+    @Test
+    public void testReadParentDepth_WHEN_chainHasMissingAncestor_THEN_countsLocatedParents() throws IOException {
+        writePom("org.acme", "lib", "1.0", "<project>" + PARENT
+                + "<licenses><license><name>license1</name></license></licenses></project>");
+        writePom("org.acme", "acme-parent", "7", "<project><parent><groupId>org.acme</groupId>"
+                + "<artifactId>acme-root</artifactId><version>1</version></parent></project>");
+
+        assertThat(reader.readParentDepth(artifact("lib", "1.0")), is(2));
+        assertThat(reader.readParentDepth(artifact("acme-parent", "7")), is(1));
+        assertThat(reader.readParentDepth(artifact("missing", "1")), is(0));
+    }
+
+    @Test
+    public void testRead_WHEN_childrenShareAParent_THEN_parentIsReadOnce() throws IOException {
+        writePom("org.acme", "lib1", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "lib2", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "acme-parent", "7", "<project><parent><groupId>org.acme</groupId>"
+                + "<artifactId>acme-root</artifactId><version>1</version></parent></project>");
+        writePom("org.acme", "acme-root", "1", "<project>"
+                + "<licenses><license><name>license1</name></license></licenses></project>");
+
+        PomLicenseReader.PomLicenses first = reader.read(artifact("lib1", "1.0"));
+        assertThat(first.getLicenses(), contains("license1"));
+        assertThat(first.getParentDepth(), is(2));
+        assertThat(reader.readParentDepth(artifact("lib1", "1.0")), is(2));
+
+        // the parents are served from the cache from now on
+        deletePom("org.acme", "acme-parent", "7");
+        deletePom("org.acme", "acme-root", "1");
+        PomLicenseReader.PomLicenses second = reader.read(artifact("lib2", "1.0"));
+        assertThat(second.getLicenses(), contains("license1"));
+        assertThat(second.getParentDepth(), is(2));
+        assertThat(reader.readParentDepth(artifact("lib2", "1.0")), is(2));
+    }
+
+    @Test
+    public void testRead_WHEN_sharedParentIsUnsupported_THEN_returnsNullForEveryChild() throws IOException {
+        writePom("org.acme", "lib1", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "lib2", "1.0", "<project>" + PARENT
+                + "<licenses><license><name>license2</name></license></licenses></project>");
+        writePom("org.acme", "lib3", "1.0", "<project>" + PARENT + "</project>");
+        writePom("org.acme", "acme-parent", "7", "<project>"
+                + "<licenses><license><name>${license.name}</name></license></licenses></project>");
+
+        assertThat(reader.read(artifact("lib1", "1.0")), is(nullValue()));
+        assertThat(reader.readLicenses(artifact("lib2", "1.0")), contains("license2"));
+        assertThat(reader.read(artifact("lib3", "1.0")), is(nullValue()));
+    }
+
+    private static Artifact artifact(final String artifactId, final String version) {
+        return new TestArtifact("org.acme", artifactId, version, "compile");
+    }
+
+    private void deletePom(final String groupId,
+                           final String artifactId,
+                           final String version) throws IOException {
+        Files.delete(localRepository.resolve(groupId.replace('.', '/'))
+                .resolve(artifactId)
+                .resolve(version)
+                .resolve(artifactId + "-" + version + ".pom"));
+    }
+
+    private void writePom(final String groupId,
+                          final String artifactId,
+                          final String version,
+                          final String content) throws IOException {
+        File dir = localRepository.resolve(groupId.replace('.', '/'))
+                .resolve(artifactId)
+                .resolve(version)
+                .toFile();
+        Files.createDirectories(dir.toPath());
+        Files.write(new File(dir, artifactId + "-" + version + ".pom").toPath(),
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package com.csoft.services;
+
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactorLicenseCacheTest {
+
+    private static final Artifact ARTIFACT = new TestArtifact("group1", "artifact1", "1.0", "compile");
+
+    @Mock
+    private MavenSession session;
+
+    @Mock
+    private MavenSession otherModuleSession;
+
+    @Test
+    public void testForSession_WHEN_sessionsShareTheSameRequest_THEN_returnsSameCache() {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        when(session.getRequest()).thenReturn(request);
+        when(otherModuleSession.getRequest()).thenReturn(request);
+
+        assertThat(ReactorLicenseCache.forSession(session),
+                is(sameInstance(ReactorLicenseCache.forSession(otherModuleSession))));
+    }
+
+    @Test
+    public void testForSession_WHEN_sessionsHaveDifferentRequests_THEN_returnsDifferentCaches() {
+        when(session.getRequest()).thenReturn(new DefaultMavenExecutionRequest());
+        when(otherModuleSession.getRequest()).thenReturn(new DefaultMavenExecutionRequest());
+
+        assertThat(ReactorLicenseCache.forSession(session),
+                is(not(sameInstance(ReactorLicenseCache.forSession(otherModuleSession)))));
+    }
+
+    @Test
+    public void testGet_WHEN_sameArtifactRequestedConcurrently_THEN_loaderRunsOnce() throws Exception {
+        ReactorLicenseCache cache = new ReactorLicenseCache();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(ARTIFACT, () -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return Collections.singletonList("license1");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS), contains("license1"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void testGet_WHEN_loaderFails_THEN_nextLookupRetries() {
+        ReactorLicenseCache cache = new ReactorLicenseCache();
+        assertThrows(IllegalStateException.class, () -> cache.get(ARTIFACT, () -> {
+            throw new IllegalStateException("broken pom");
+        }));
+
+        assertThat(cache.get(ARTIFACT, () -> Collections.singletonList("license1")), contains("license1"));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.csoft.services;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -13,16 +14,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 
@@ -58,6 +64,46 @@ class ReportBuilderTest {
         assertThat(violationsMap.size(), is(VIOLATIONS_MAP.size()));
     }
 
+    @Test
+    public void testBuildReportsOnlyInRequestedFormats() throws IOException {
+        Path tempPath = Files.createTempDirectory(null);
+        when(build.getDirectory()).thenReturn(tempPath.toString());
+        when(project.getBuild()).thenReturn(build);
+        Map<ReportFormat, String> reportFiles = reportBuilder.buildReports(
+                EnumSet.of(ReportFormat.JSON), LICENSES_MAP, VIOLATIONS_MAP, null);
+        Path reportPath = tempPath.resolve("license-scan-results");
+        assertThat(reportFiles.keySet(), is(EnumSet.of(ReportFormat.JSON)));
+        assertTrue(Files.exists(reportPath.resolve("license-scan-report.json")));
+        assertFalse(Files.exists(reportPath.resolve("index.html")));
+    }
+
+    @Test
+    public void testBuildReportsInAllFormats() throws IOException {
+        Path tempPath = Files.createTempDirectory(null);
+        when(build.getDirectory()).thenReturn(tempPath.toString());
+        when(project.getBuild()).thenReturn(build);
+        when(project.getPlugin("com.github.carlomorelli:licensescan-maven-plugin")).thenReturn(new Plugin());
+        Map<ReportFormat, String> reportFiles = reportBuilder.buildReports(
+                EnumSet.allOf(ReportFormat.class), LICENSES_MAP, VIOLATIONS_MAP, null);
+        Path reportPath = tempPath.resolve("license-scan-results");
+        assertThat(reportFiles.get(ReportFormat.JSON), is(reportPath.resolve("license-scan-report.json").toString()));
+        assertThat(reportFiles.get(ReportFormat.HTML), is(reportPath.resolve("index.html").toString()));
+        assertTrue(new String(Files.readAllBytes(reportPath.resolve("index.html")), StandardCharsets.UTF_8).contains("artifact1"));
+    }
+
+    @Test
+    public void testBuildHtmlReportIsUtf8Encoded() throws IOException {
+        Path tempPath = Files.createTempDirectory(null);
+        when(build.getDirectory()).thenReturn(tempPath.toString());
+        when(project.getBuild()).thenReturn(build);
+        when(project.getPlugin("com.github.carlomorelli:licensescan-maven-plugin")).thenReturn(new Plugin());
+        Map<String, List<String>> licenses = new HashMap<>();
+        licenses.put("artifact1", Arrays.asList("Licence publique g\u00e9n\u00e9rale"));
+        String htmlFile = reportBuilder.buildHtmlReport(licenses, new HashMap<>());
+        String html = new String(Files.readAllBytes(Paths.get(htmlFile)), StandardCharsets.UTF_8);
+        assertTrue(html.contains("Licence publique g\u00e9n\u00e9rale"));
+    }
+
     private static final Map<String, List<String>> LICENSES_MAP = new HashMap() {{
         put("artifact1", Arrays.asList("license11", "license21"));
         put("artifact2", Arrays.asList("license21"));
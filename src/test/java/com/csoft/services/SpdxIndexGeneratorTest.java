@@ -0,0 +1,116 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpdxIndexGeneratorTest {
+
+    private static final String LICENSES = "{\"licenseListVersion\": \"3.25.0\", \"licenses\": ["
+            + "{\"licenseId\": \"GPL-2.0\", \"name\": \"GNU General Public License v2.0 only\","
+            + " \"isDeprecatedLicenseId\": true, \"isOsiApproved\": true},"
+            + "{\"licenseId\": \"GPL-2.0-only\", \"name\": \"GNU General Public License v2.0 only\","
+            + " \"isDeprecatedLicenseId\": false, \"isOsiApproved\": true},"
+            + "{\"licenseId\": \"MIT\", \"name\": \"MIT License\", \"isOsiApproved\": true},"
+            + "{\"licenseId\": \"Beerware\", \"name\": \"Beerware License\", \"isOsiApproved\": false}]}";
+    private static final String EXCEPTIONS = "{\"exceptions\": ["
+            + "{\"licenseExceptionId\": \"Classpath-exception-2.0\", \"name\": \"Classpath exception 2.0\","
+            + " \"isDeprecatedLicenseId\": false}]}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWrite_WHEN_spdxLists_THEN_indexesTheirIdsNamesAndUrls() throws IOException {
+        SpdxIndex index = SpdxIndex.read(new ByteArrayInputStream(write(LICENSES, EXCEPTIONS, "")));
+
+        assertThat(index.getLicenseCount(), is(5));
+        int mit = index.indexOf("mit");
+        assertThat(index.getName(mit), is("MIT License"));
+        assertThat(index.isOsiApproved(mit), is(true));
+        assertThat(index.indexOf(SpdxNormalizer.fold("https://spdx.org/licenses/MIT.html")), is(mit));
+        assertThat(index.isOsiApproved(index.indexOf("beerware license")), is(false));
+        int classpath = index.indexOf("classpath exception 2.0");
+        assertThat(index.getId(classpath), is("Classpath-exception-2.0"));
+        assertThat(index.isException(classpath), is(true));
+        // the name shared with the deprecated identifier stays with its replacement
+        assertThat(index.getId(index.indexOf(SpdxNormalizer.fold("GNU General Public License v2.0 only"))),
+                is("GPL-2.0-only"));
+        int deprecated = index.indexOf(SpdxNormalizer.fold("GPL-2.0"));
+        assertThat(index.getId(deprecated), is("GPL-2.0"));
+        assertThat(index.isDeprecated(deprecated), is(true));
+    }
+
+    @Test
+    public void testWrite_WHEN_aliasList_THEN_itsAliasesWinOverTheListedOnes() throws IOException {
+        SpdxIndex index = SpdxIndex.read(new ByteArrayInputStream(write(LICENSES, EXCEPTIONS, "# aliases\n"
+                + "GPL-2.0-only\n"
+                + "    GPL-2.0\n"
+                + "    GPLv2\n"
+                + "\n"
+                + "GPL-2.0-only WITH Classpath-exception-2.0 | GPL v2.0 with Classpath exception | osi\n"
+                + "    GPL2 w/ CPE\n")));
+
+        assertThat(index.getLicenseCount(), is(6));
+        assertThat(index.getId(index.indexOf(SpdxNormalizer.fold("GPL-2.0"))), is("GPL-2.0-only"));
+        assertThat(index.getId(index.indexOf("gplv2")), is("GPL-2.0-only"));
+        int expression = index.indexOf(SpdxNormalizer.fold("GPL2 w/ CPE"));
+        assertThat(index.getId(expression), is("GPL-2.0-only WITH Classpath-exception-2.0"));
+        assertThat(index.getName(expression), is("GPL v2.0 with Classpath exception"));
+        assertThat(index.isOsiApproved(expression), is(true));
+    }
+
+    @Test
+    public void testMain_WHEN_sourceFiles_THEN_writesTheIndexFile() throws IOException {
+        Path licenses = tempDir.resolve("licenses.json");
+        Path exceptions = tempDir.resolve("exceptions.json");
+        Path aliases = tempDir.resolve("spdx-aliases.txt");
+        Files.write(licenses, LICENSES.getBytes(StandardCharsets.UTF_8));
+        Files.write(exceptions, EXCEPTIONS.getBytes(StandardCharsets.UTF_8));
+        Files.write(aliases, "MIT\n    Expat\n".getBytes(StandardCharsets.UTF_8));
+        Path indexFile = tempDir.resolve("classes/spdx-licenses.idx");
+        SpdxIndexGenerator.main(new String[]{
+                licenses.toString(), exceptions.toString(), aliases.toString(), indexFile.toString()});
+
+        SpdxIndex index = SpdxIndex.open(indexFile.toUri().toURL());
+        assertThat(index.getLicenseCount(), is(5));
+        assertThat(index.getId(index.indexOf("expat")), is("MIT"));
+    }
+
+    @Test
+    public void testWrite_WHEN_malformedSources_THEN_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> write(LICENSES, EXCEPTIONS, "MIT\n    MIT License\nBeerware\n    The MIT license\n"));
+        assertThrows(IllegalArgumentException.class, () -> write(LICENSES, EXCEPTIONS, "    MIT License\n"));
+        assertThrows(IllegalArgumentException.class, () -> write(LICENSES, EXCEPTIONS, "Acme\n    Acme License\n"));
+        assertThrows(IllegalArgumentException.class, () -> write(LICENSES, EXCEPTIONS, "MIT | MIT License\n"));
+        assertThrows(IllegalArgumentException.class, () -> write(LICENSES, EXCEPTIONS, "Acme | Acme | free\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> write("{\"licenses\": [{\"licenseId\": \"MIT\"}]}", EXCEPTIONS, ""));
+        assertThrows(IllegalArgumentException.class, () -> write(LICENSES, "{\"licenses\": []}", ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> SpdxIndexGenerator.main(new String[]{"licenses.json", "spdx-aliases.txt"}));
+    }
+
+    private static byte[] write(final String licenses,
+                                final String exceptions,
+                                final String aliases) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SpdxIndexGenerator.write(new ByteArrayInputStream(licenses.getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayInputStream(exceptions.getBytes(StandardCharsets.UTF_8)),
+                new BufferedReader(new StringReader(aliases)), out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpdxIndexTest {
+
+    private static final String LIST = "# test list\n"
+            + "MIT | MIT License | osi\n"
+            + "    The MIT License (MIT)\n"
+            + "\n"
+            + "Apache-2.0 | Apache License 2.0 | osi\n"
+            + "    ASL 2.0\n"
+            + "    http://www.apache.org/licenses/LICENSE-2.0\n"
+            + "wxWindows | wxWindows Library License | osi,deprecated\n"
+            + "Classpath-exception-2.0 | Classpath exception 2.0 | exception\n"
+            + "CC0-1.0 | Creative Commons Zero v1.0 Universal\n"
+            + "    Licen\u00e7a CC0\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOpen_WHEN_indexFile_THEN_mapsItAndFindsAliases() throws IOException {
+        Path indexFile = tempDir.resolve("spdx-licenses.idx");
+        Files.write(indexFile, write(LIST));
+        SpdxIndex index = SpdxIndex.open(indexFile.toUri().toURL());
+
+        assertThat(index.getLicenseCount(), is(5));
+        assertThat(index.getAliasCount(), is(13));
+        int apache = index.indexOf(SpdxNormalizer.fold("https://apache.org/licenses/LICENSE-2.0.txt"));
+        assertThat(index.getId(apache), is("Apache-2.0"));
+        assertThat(index.getName(apache), is("Apache License 2.0"));
+        assertThat(index.getId(index.indexOf("asl 2.0")), is("Apache-2.0"));
+        assertThat(index.getId(index.indexOf("mit")), is("MIT"));
+        assertThat(index.getId(index.indexOf("mit license mit")), is("MIT"));
+        assertThat(index.getId(index.indexOf(SpdxNormalizer.fold("LICEN\u00c7A CC0"))), is("CC0-1.0"));
+        assertThat(index.indexOf("gpl 2.0"), is(-1));
+        assertThat(index.indexOf(""), is(-1));
+        assertThat(index.isMapped(), is(true));
+    }
+
+    @Test
+    public void testOpen_WHEN_jarEntry_THEN_readsItIntoTheHeap() throws IOException {
+        Path jar = tempDir.resolve("licensescan-maven-plugin.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("spdx-licenses.idx"));
+            out.write(write(LIST));
+            out.closeEntry();
+        }
+        SpdxIndex index = SpdxIndex.open(new URL("jar:" + jar.toUri() + "!/spdx-licenses.idx"));
+
+        assertThat(index.isMapped(), is(false));
+        assertThat(index.getLicenseCount(), is(5));
+        assertThat(index.getId(index.indexOf("asl 2.0")), is("Apache-2.0"));
+    }
+
+    @Test
+    public void testRead_WHEN_indexStream_THEN_readsTheFlags() throws IOException {
+        SpdxIndex index = SpdxIndex.read(new ByteArrayInputStream(write(LIST)));
+        int mit = index.indexOf("mit");
+        int wxWindows = index.indexOf("wxwindows");
+        int classpath = index.indexOf("classpath exception 2.0");
+        int cc0 = index.indexOf("cc0 1.0");
+        assertThat(index.isOsiApproved(mit), is(true));
+        assertThat(index.isDeprecated(mit), is(false));
+        assertThat(index.isDeprecated(wxWindows), is(true));
+        assertThat(index.isException(classpath), is(true));
+        assertThat(index.isOsiApproved(classpath), is(false));
+        assertThat(index.isOsiApproved(cc0), is(false));
+    }
+
+    @Test
+    public void testRead_WHEN_notAnIndex_THEN_throwsException() {
+        assertThrows(IllegalStateException.class,
+                () -> SpdxIndex.read(new ByteArrayInputStream("{\"licenses\": []}".getBytes())));
+    }
+
+    private static byte[] write(final String list) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SpdxIndexGenerator.write(new ByteArrayInputStream("{\"licenses\": []}".getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayInputStream("{\"exceptions\": []}".getBytes(StandardCharsets.UTF_8)),
+                new BufferedReader(new StringReader(list)), out);
+        return out.toByteArray();
+    }
+}
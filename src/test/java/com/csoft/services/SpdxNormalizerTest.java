@@ -0,0 +1,66 @@
+package com.csoft.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+class SpdxNormalizerTest {
+
+    @Test
+    public void testNormalize_WHEN_knownNameOrUrl_THEN_returnsSpdxId() {
+        SpdxNormalizer normalizer = SpdxNormalizer.getDefault();
+        assertThat(normalizer.getIndex().getAliasCount(), is(greaterThan(100)));
+        assertThat(normalizer.normalize("Apache 2"), is("Apache-2.0"));
+        assertThat(normalizer.normalize("Apache License 2.0"), is("Apache-2.0"));
+        assertThat(normalizer.normalize("The Apache Software License, Version 2.0"), is("Apache-2.0"));
+        assertThat(normalizer.normalize("  ASL  2.0 "), is("Apache-2.0"));
+        assertThat(normalizer.normalize("apache-2.0"), is("Apache-2.0"));
+        assertThat(normalizer.normalize("https://www.apache.org/licenses/LICENSE-2.0.html"), is("Apache-2.0"));
+        assertThat(normalizer.normalize("Eclipse Public License - v 2.0"), is("EPL-2.0"));
+        assertThat(normalizer.normalize("European Union Public License 1.2"), is("EUPL-1.2"));
+        assertThat(normalizer.normalize("GPL-2.0+"), is("GPL-2.0-or-later"));
+        assertThat(normalizer.normalize("GPL-2.0"), is("GPL-2.0-only"));
+        assertThat(normalizer.normalize("GNU General Public License, version 2 with the GNU Classpath Exception"),
+                is("GPL-2.0-only WITH Classpath-exception-2.0"));
+    }
+
+    @Test
+    public void testNormalize_WHEN_licenseOfTheFullSpdxList_THEN_returnsSpdxId() {
+        SpdxNormalizer normalizer = SpdxNormalizer.getDefault();
+        assertThat(normalizer.getIndex().getLicenseCount(), is(greaterThan(700)));
+        assertThat(normalizer.normalize("BSD Zero Clause License"), is("0BSD"));
+        assertThat(normalizer.normalize("Universal Permissive License v1.0"), is("UPL-1.0"));
+        assertThat(normalizer.normalize("https://spdx.org/licenses/Beerware.html"), is("Beerware"));
+        assertThat(normalizer.normalize("LLVM Exception"), is("LLVM-exception"));
+        assertThat(normalizer.normalize("GNU General Public License v2.0 only"), is("GPL-2.0-only"));
+        assertThat(normalizer.normalize("GPL-2.0-with-classpath-exception"), is("GPL-2.0-with-classpath-exception"));
+    }
+
+    @Test
+    public void testNormalize_WHEN_unknownLicense_THEN_returnsNullAndMemoizesIt() {
+        SpdxNormalizer normalizer = SpdxNormalizer.getDefault();
+        assertThat(normalizer.normalize("Acme Proprietary License"), is(nullValue()));
+        assertThat(normalizer.normalize("Acme Proprietary License"), is(nullValue()));
+        assertThat(normalizer.normalize(null), is(nullValue()));
+    }
+
+    @Test
+    public void testNormalize_WHEN_versionlessGnuUrl_THEN_returnsNull() {
+        SpdxNormalizer normalizer = SpdxNormalizer.getDefault();
+        assertThat(normalizer.normalize("http://www.gnu.org/licenses/gpl"), is(nullValue()));
+        assertThat(normalizer.normalize("https://www.gnu.org/licenses/lgpl.html"), is(nullValue()));
+        assertThat(normalizer.normalize("http://www.gnu.org/licenses/gpl-3.0"), is("GPL-3.0-only"));
+    }
+
+    @Test
+    public void testFold_WHEN_noiseDiffers_THEN_keysAreEqual() {
+        assertThat(SpdxNormalizer.fold("The Apache Licence, Version 2.0."), is("apache license 2.0"));
+        assertThat(SpdxNormalizer.fold("Apache License v2.0"), is("apache license 2.0"));
+        assertThat(SpdxNormalizer.fold("http://www.opensource.org/licenses/mit-license.php/"),
+                is("opensource.org licenses mit license"));
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.csoft.utils;
+
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ArtifactKeyTest {
+
+    @Test
+    public void testGetLabel_WHEN_keyOfArtifact_THEN_returnsGavLabel() {
+        Artifact artifact = new TestArtifact("group1", "artifact1", "1.0", "compile");
+        ArtifactKey key = ArtifactKey.of(artifact);
+        assertThat(key.getLabel(), is("group1:artifact1:1.0:compile"));
+        assertThat(key.getLabel(), is(ArtifactUtils.getGavLabel(artifact)));
+        assertThat(key.getLabel(), sameInstance(key.getLabel()));
+        assertThat(key.toString(), is(key.getLabel()));
+    }
+
+    @Test
+    public void testGetLabel_WHEN_scopeIsNull_THEN_returnsSameLabelAsFormat() {
+        ArtifactKey key = new ArtifactKey("group1", "artifact1", "1.0", null);
+        assertThat(key.getLabel(), is(String.format("%s:%s:%s:%s", "group1", "artifact1", "1.0", null)));
+    }
+
+    @Test
+    public void testEquals_WHEN_sameCoordinates_THEN_keysAreEqual() {
+        ArtifactKey key = ArtifactKey.of(new TestArtifact("group1", "artifact1", "1.0", "compile"));
+        ArtifactKey other = new ArtifactKey("group1", "artifact1", "1.0", "compile");
+        assertThat(key, is(other));
+        assertThat(key.hashCode(), is(other.hashCode()));
+    }
+
+    @Test
+    public void testEquals_WHEN_differentScope_THEN_keysAreNotEqual() {
+        ArtifactKey key = new ArtifactKey("group1", "artifact1", "1.0", "compile");
+        assertThat(key, not(new ArtifactKey("group1", "artifact1", "1.0", "runtime")));
+        assertThat(key, not(new ArtifactKey("group1", "artifact1", "1.1", "compile")));
+    }
+
+}
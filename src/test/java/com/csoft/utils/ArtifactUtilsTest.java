@@ -179,4 +179,32 @@ public class ArtifactUtilsTest {
         verify(mavenProject, times(1)).getDependencyArtifacts();
     }
 
+    @Test
+    public void testClassifyDependencies_WHEN_inputHasMixedDeps_THEN_viewsAreConsistentAndProjectIsWalkedOnce() {
+        //given
+        Set<Artifact> allDeps = new HashSet<>();
+        allDeps.add(dep1);
+        allDeps.add(dep2);
+        allDeps.add(testDep);
+        Set<Artifact> directDeps = new HashSet<>();
+        directDeps.add(dep1);
+        directDeps.add(testDep);
+        directDeps.add(providedDep);
+        when(mavenProject.getArtifacts()).thenReturn(allDeps);
+        when(mavenProject.getDependencyArtifacts()).thenReturn(directDeps);
+
+        //when
+        ClassifiedDependencies dependencies = ArtifactUtils.classifyDependencies(mavenProject);
+
+        //then
+        assertThat(dependencies.getDirect(), containsInAnyOrder(dep1));
+        assertThat(dependencies.getTransitive(), containsInAnyOrder(dep2, testDep));
+        assertThat(dependencies.getCumulative(), containsInAnyOrder(dep1, dep2, testDep));
+        assertThat(dependencies.getCumulative().size(), is(3));
+        assertThat(dependencies.getCumulative().contains(testDep), is(true));
+        assertThat(dependencies.getCumulative().contains(providedDep), is(false));
+        verify(mavenProject, times(1)).getArtifacts();
+        verify(mavenProject, times(1)).getDependencyArtifacts();
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.csoft.utils;
+
+import mocks.TestArtifact;
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class DependencyPathsTest {
+
+    private static final String ROOT = "com.acme:app:jar:1";
+
+    @Test
+    public void testGetPath_WHEN_artifactReachableThroughSeveralTrails_THEN_returnsShortestPath() {
+        Artifact direct1 = artifact("direct1", ROOT);
+        Artifact direct2 = artifact("direct2", ROOT);
+        Artifact middle = artifact("middle", ROOT, "acme:direct1:test:1");
+        // the trail of 'shared' goes through 'middle', but 'leaf' reveals a shorter edge direct2 -> shared
+        Artifact shared = artifact("shared", ROOT, "acme:direct1:test:1", "acme:middle:test:1");
+        Artifact leaf = artifact("leaf", ROOT, "acme:direct2:test:1", "acme:shared:test:1");
+        DependencyPaths paths = new DependencyPaths(Arrays.asList(direct1, direct2, middle, shared, leaf));
+
+        assertThat(paths.getPath("acme:direct1:1:compile"), contains("acme:direct1:1:compile"));
+        assertThat(paths.getPath("acme:middle:1:compile"), contains("acme:direct1:1:compile", "acme:middle:1:compile"));
+        assertThat(paths.getPath("acme:shared:1:compile"), contains("acme:direct2:1:compile", "acme:shared:1:compile"));
+        assertThat(paths.getPath("acme:leaf:1:compile"),
+                contains("acme:direct2:1:compile", "acme:shared:1:compile", "acme:leaf:1:compile"));
+    }
+
+    @Test
+    public void testGetPath_WHEN_trailOrArtifactUnknown_THEN_returnsEmptyOrTrailIds() {
+        Artifact noTrail = new TestArtifact("acme", "notrail", "1", "compile");
+        // 'hidden' is test-scoped, hence not among the audited artifacts
+        Artifact viaHidden = artifact("viahidden", ROOT, "acme:hidden:test:1");
+        DependencyPaths paths = new DependencyPaths(Arrays.asList(noTrail, viaHidden));
+
+        assertThat(paths.getPath("acme:notrail:1:compile"), is(empty()));
+        assertThat(paths.getPath("acme:unknown:1:compile"), is(empty()));
+        assertThat(paths.getPath("acme:viahidden:1:compile"), contains("acme:hidden:test:1", "acme:viahidden:1:compile"));
+    }
+
+    @Test
+    public void testGetTransitivePaths_WHEN_directAndTransitiveArtifacts_THEN_returnsOnlyTransitivePaths() {
+        Artifact direct = artifact("direct", ROOT);
+        Artifact transitive = artifact("transitive", ROOT, "acme:direct:test:1");
+        DependencyPaths paths = new DependencyPaths(Arrays.asList(direct, transitive));
+
+        Map<String, List<String>> transitivePaths = paths.getTransitivePaths(
+                Arrays.asList("acme:direct:1:compile", "acme:transitive:1:compile", "acme:unknown:1:compile"));
+        assertThat(transitivePaths, is(Collections.singletonMap("acme:transitive:1:compile",
+                Arrays.asList("acme:direct:1:compile", "acme:transitive:1:compile"))));
+    }
+
+    /**
+     * Creates an artifact of the 'acme' group whose dependency trail is made
+     * of the input ids followed by the id of the artifact itself.
+     */
+    private static Artifact artifact(final String artifactId, final String... trail) {
+        Artifact artifact = new TestArtifact("acme", artifactId, "1", "compile");
+        List<String> dependencyTrail = new ArrayList<>(Arrays.asList(trail));
+        dependencyTrail.add(artifact.getId());
+        artifact.setDependencyTrail(dependencyTrail);
+        return artifact;
+    }
+}
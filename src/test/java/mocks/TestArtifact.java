@@ -19,6 +19,8 @@ public class TestArtifact implements Artifact {
     private final String artifact;
     private final String version;
     private final String scope;
+    private File file;
+    private List<String> dependencyTrail;
 
     public TestArtifact(String group, String artifact, String version, String scope) {
         this.group = group;
@@ -81,11 +83,11 @@ public class TestArtifact implements Artifact {
     }
 
     public File getFile() {
-        return null;
+        return file;
     }
 
     public void setFile(File destination) {
-
+        this.file = destination;
     }
 
     public String getBaseVersion() {
@@ -97,7 +99,7 @@ public class TestArtifact implements Artifact {
     }
 
     public String getId() {
-        return null;
+        return group + ":" + artifact + ":" + getType() + ":" + version;
     }
 
     public String getDependencyConflictId() {
@@ -145,11 +147,11 @@ public class TestArtifact implements Artifact {
     }
 
     public List<String> getDependencyTrail() {
-        return null;
+        return dependencyTrail;
     }
 
     public void setDependencyTrail(List<String> dependencyTrail) {
-
+        this.dependencyTrail = dependencyTrail;
     }
 
     public void setScope(String scope) {
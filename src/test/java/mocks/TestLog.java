@@ -16,6 +16,12 @@ public class TestLog extends SystemStreamLog {
         super.info(content);
     }
 
+    @Override
+    public void debug(CharSequence content) {
+        logs.add(new LogRow("debug", String.valueOf(content)));
+        super.debug(content);
+    }
+
     @Override
     public void warn(CharSequence content) {
         logs.add(new LogRow("warn", String.valueOf(content)));
@@ -26,6 +32,14 @@ public class TestLog extends SystemStreamLog {
         assertMessage("info", info);
     }
 
+    public void assertNoInfo(String info) {
+        assertNoMessage("info", info);
+    }
+
+    public void assertDebug(String debug) {
+        assertMessage("debug", debug);
+    }
+
     public void assertWarning(String warn) {
         assertMessage("warn", warn);
     }
@@ -17,14 +17,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class TestProjectBuilder implements ProjectBuilder {
     private Map<Artifact, TreeSet<License>> licenses = new HashMap<>();
+    private Map<Artifact, Integer> buildCounts = new ConcurrentHashMap<>();
+    private Set<Artifact> brokenArtifacts = new HashSet<>();
 
     public Set<Artifact> createArtifact(String group, String artifact, String version, Set<String> licenseStrings) {
         // Note: setting the scope as 'compile' as it is the default scope in Maven when not specified
@@ -43,6 +47,12 @@ public class TestProjectBuilder implements ProjectBuilder {
         return Collections.singleton(a);
     }
 
+    public Set<Artifact> createBrokenArtifact(String group, String artifact, String version) {
+        Artifact a = new TestArtifact(group, artifact, version, "compile");
+        brokenArtifacts.add(a);
+        return Collections.singleton(a);
+    }
+
     private static Collection<License> toLicenses(Set<String> licenseStrings) {
         return licenseStrings.stream()
                 .map(licenseString -> {
@@ -57,7 +67,16 @@ public class TestProjectBuilder implements ProjectBuilder {
         return null;
     }
 
+    public int getBuildCount(Artifact artifact) {
+        return buildCounts.getOrDefault(artifact, 0);
+    }
+
     public ProjectBuildingResult build(Artifact projectArtifact, ProjectBuildingRequest request) throws ProjectBuildingException {
+        buildCounts.merge(projectArtifact, 1, Integer::sum);
+        if (brokenArtifacts.contains(projectArtifact)) {
+            String projectId = projectArtifact.getGroupId() + ":" + projectArtifact.getArtifactId() + ":" + projectArtifact.getVersion();
+            throw new ProjectBuildingException(projectId, "Broken POM", (File) null);
+        }
         return new TestProjectResult(projectArtifact, licenses.get(projectArtifact));
     }
 
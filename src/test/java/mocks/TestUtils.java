@@ -1,6 +1,8 @@
 package mocks;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class TestUtils {
@@ -12,4 +14,11 @@ public class TestUtils {
         }
         return set;
     }
+
+    public static <T> List<T> concat(T head, List<T> tail) {
+        List<T> list = new ArrayList<>();
+        list.add(head);
+        list.addAll(tail);
+        return list;
+    }
 }